@@ -0,0 +1,209 @@
+package com.pippsford.beantester.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates bean descriptions at compile time. Beans are selected either by the {@link DescribeBeans} annotation, or by listing
+ * their packages in the "beantester.packages" processor option (e.g. "-Abeantester.packages=com.example.model,com.example.api").
+ *
+ * <p>For every package that contains selected beans, a class is generated which supplies the beans' getters and setters as compiled method references. The
+ * generated class is registered with the service loader so the bean tester finds it automatically.</p>
+ */
+@SupportedOptions(BeanDescriptionProcessor.PACKAGES_OPTION)
+public class BeanDescriptionProcessor extends AbstractProcessor {
+
+  /** The processor option that lists packages to generate descriptions for. */
+  static final String PACKAGES_OPTION = "beantester.packages";
+
+  /** The service file the generated lookups are registered in. */
+  private static final String SERVICE_FILE = "META-INF/services/com.pippsford.beantester.info.BeanDescriptionLookup";
+
+  /** The simple name of the generated classes. */
+  private static final String SIMPLE_NAME = "BeanTesterDescriptions";
+
+
+  /**
+   * Is a type a suitable bean? It must be a public, concrete, non-generic class that can be referenced from its package.
+   *
+   * @param type the type
+   *
+   * @return true if the type is suitable
+   */
+  private static boolean isSuitable(TypeElement type) {
+    if (
+        !(type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.RECORD)
+            || !type.getModifiers().contains(Modifier.PUBLIC)
+            || type.getModifiers().contains(Modifier.ABSTRACT)
+            || !type.getTypeParameters().isEmpty()
+    ) {
+      return false;
+    }
+
+    Element enclosing = type.getEnclosingElement();
+    if (enclosing.getKind() == ElementKind.PACKAGE) {
+      return true;
+    }
+    return type.getModifiers().contains(Modifier.STATIC) && isVisible(enclosing);
+  }
+
+
+  private static boolean isVisible(Element element) {
+    while (element.getKind() != ElementKind.PACKAGE) {
+      if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+        return false;
+      }
+      element = element.getEnclosingElement();
+    }
+    return true;
+  }
+
+
+  /** The names of the beans that have been processed. */
+  private final Set<String> beans = new HashSet<>();
+
+  /** The names of the generated lookup classes. */
+  private final List<String> lookups = new ArrayList<>();
+
+
+  private void add(Map<String, Map<String, TypeElement>> found, TypeElement type, boolean nested) {
+    String name = type.getQualifiedName().toString();
+    if (lookups.contains(name)) {
+      // This is one of our generated classes
+      return;
+    }
+    if (isSuitable(type) && beans.add(name)) {
+      String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+      String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+      found.computeIfAbsent(packageName, k -> new TreeMap<>()).put(binaryName, type);
+    }
+    if (nested) {
+      for (Element element : type.getEnclosedElements()) {
+        if (element instanceof TypeElement member) {
+          add(found, member, true);
+        }
+      }
+    }
+  }
+
+
+  private Set<String> getConfiguredPackages() {
+    String option = processingEnv.getOptions().get(PACKAGES_OPTION);
+    Set<String> packages = new HashSet<>();
+    if (option != null) {
+      for (String name : option.split(",")) {
+        if (!name.isBlank()) {
+          packages.add(name.trim());
+        }
+      }
+    }
+    return packages;
+  }
+
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    // If packages are configured, we need to see every type, annotated or not.
+    if (processingEnv != null && processingEnv.getOptions().containsKey(PACKAGES_OPTION)) {
+      return Set.of("*");
+    }
+    return Set.of(DescribeBeans.class.getName());
+  }
+
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+
+  private String newClassName(String packageName) {
+    // A package may gain beans in a later round, in which case it needs a second lookup class.
+    String prefix = packageName.isEmpty() ? "" : packageName + ".";
+    String name = prefix + SIMPLE_NAME;
+    int suffix = 1;
+    while (lookups.contains(name)) {
+      suffix++;
+      name = prefix + SIMPLE_NAME + suffix;
+    }
+    return name;
+  }
+
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Map<String, Map<String, TypeElement>> found = new TreeMap<>();
+
+    for (Element element : roundEnv.getElementsAnnotatedWith(DescribeBeans.class)) {
+      if (element instanceof PackageElement packageElement) {
+        for (Element member : packageElement.getEnclosedElements()) {
+          add(found, (TypeElement) member, true);
+        }
+      } else if (element instanceof TypeElement type) {
+        if (!isSuitable(type)) {
+          processingEnv.getMessager().printMessage(Kind.WARNING, "Bean descriptions cannot be generated for this type", type);
+        }
+        add(found, type, false);
+      }
+    }
+
+    Set<String> packages = getConfiguredPackages();
+    if (!packages.isEmpty()) {
+      for (Element element : roundEnv.getRootElements()) {
+        if (
+            element instanceof TypeElement type
+                && packages.contains(processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString())
+        ) {
+          add(found, type, true);
+        }
+      }
+    }
+
+    for (Map.Entry<String, Map<String, TypeElement>> entry : found.entrySet()) {
+      String className = newClassName(entry.getKey());
+      new LookupWriter(processingEnv, className, entry.getValue()).write();
+      lookups.add(className);
+    }
+
+    if (roundEnv.processingOver() && !lookups.isEmpty()) {
+      writeServiceFile();
+    }
+
+    // Other processors may also be interested in these annotations.
+    return false;
+  }
+
+
+  private void writeServiceFile() {
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (Writer writer = file.openWriter()) {
+        for (String lookup : lookups) {
+          writer.write(lookup);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + SERVICE_FILE + ": " + e);
+    }
+  }
+
+}
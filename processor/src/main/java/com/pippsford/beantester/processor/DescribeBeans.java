@@ -0,0 +1,20 @@
+package com.pippsford.beantester.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Request that bean descriptions are generated at compile time. When placed on a package (in its "package-info.java"), descriptions are generated for every
+ * suitable class in the package. When placed on a class, a description is generated for that class.
+ *
+ * <p>A class is suitable if it is public, concrete, not generic, and is either top-level or a static member of a public class.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.PACKAGE, ElementType.TYPE})
+public @interface DescribeBeans {
+
+}
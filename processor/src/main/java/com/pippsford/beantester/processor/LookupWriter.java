@@ -0,0 +1,363 @@
+package com.pippsford.beantester.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Writer of the lookup class for the beans in one package. The getters and setters are found using the same rules as the bean tester's reflective bean
+ * description factory, so the generated properties match those that would be found at runtime.
+ */
+class LookupWriter {
+
+  private static final String LAMBDAS = "com.pippsford.beantester.mirror.SerializableLambdas.";
+
+
+  private static boolean hasPrefix(String name, String prefix) {
+    return name.startsWith(prefix) && name.length() > prefix.length() && Character.isUpperCase(name.charAt(prefix.length()));
+  }
+
+
+  private static String literal(String value) {
+    StringBuilder buffer = new StringBuilder("\"");
+    for (char ch : value.toCharArray()) {
+      if (ch == '"' || ch == '\\') {
+        buffer.append('\\').append(ch);
+      } else if (ch < ' ' || ch > '~') {
+        buffer.append(String.format("\\u%04x", (int) ch));
+      } else {
+        buffer.append(ch);
+      }
+    }
+    return buffer.append('"').toString();
+  }
+
+
+  private static String stripPrefix(String name, String prefix) {
+    String stripped = name.substring(prefix.length());
+    if (stripped.length() >= 2 && Character.isUpperCase(stripped.charAt(0)) && Character.isUpperCase(stripped.charAt(1))) {
+      return stripped;
+    }
+    return Character.toLowerCase(stripped.charAt(0)) + stripped.substring(1);
+  }
+
+
+  /** The beans, keyed by binary name. */
+  private final Map<String, TypeElement> beans;
+
+  /** The fully qualified name of the class to write. */
+  private final String className;
+
+  private final Elements elements;
+
+  private final ProcessingEnvironment env;
+
+  private final Types types;
+
+
+  /**
+   * New instance.
+   *
+   * @param env       the processing environment
+   * @param className the fully qualified name of the class to write
+   * @param beans     the beans to describe, keyed by binary name
+   */
+  LookupWriter(ProcessingEnvironment env, String className, Map<String, TypeElement> beans) {
+    this.env = env;
+    this.className = className;
+    this.beans = beans;
+    elements = env.getElementUtils();
+    types = env.getTypeUtils();
+  }
+
+
+  private String boxedName(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+    }
+    return sourceName(type);
+  }
+
+
+  /**
+   * Does the bean or an enclosing scope make values not null by default? The nearest of the bean, its enclosing classes, its package and its module that has a
+   * run-time "not null", "null marked" or "null unmarked" annotation decides. This matches the checks made at runtime, which can only see annotations that
+   * are retained at runtime.
+   *
+   * @param bean the bean
+   *
+   * @return true if values are not null by default
+   */
+  private boolean defaultIsNotNull(TypeElement bean) {
+    Element scope = bean;
+    while (scope != null) {
+      ElementKind kind = scope.getKind();
+      if (kind.isClass() || kind.isInterface() || kind == ElementKind.PACKAGE || kind == ElementKind.MODULE) {
+        for (AnnotationMirror a : elements.getAllAnnotationMirrors(scope)) {
+          if (isNamed(a, "NotNull", "NonNull", "NullMarked")) {
+            return true;
+          }
+          if (isNamed(a, "NullUnmarked")) {
+            return false;
+          }
+        }
+      }
+      scope = scope.getEnclosingElement();
+    }
+    return false;
+  }
+
+
+  /**
+   * Describe a bean. If the bean cannot be described, the bean tester will describe it by reflection.
+   *
+   * @param bean the bean
+   *
+   * @return the lines that create the bean's properties, or null if the bean cannot be described
+   */
+  private List<String> describe(TypeElement bean) {
+    if (bean.getKind() == ElementKind.RECORD) {
+      return describeRecord(bean);
+    }
+
+    DeclaredType beanType = (DeclaredType) bean.asType();
+    String beanName = bean.getQualifiedName().toString();
+    boolean defaultIsNotNull = defaultIsNotNull(bean);
+
+    List<ExecutableElement> methods = new ArrayList<>();
+    Map<String, Integer> setterCounts = new HashMap<>();
+    for (Element element : elements.getAllMembers(bean)) {
+      if (
+          element.getKind() != ElementKind.METHOD
+              || !element.getModifiers().contains(Modifier.PUBLIC)
+              || element.getModifiers().contains(Modifier.STATIC)
+              || ((TypeElement) element.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object")
+      ) {
+        continue;
+      }
+      ExecutableElement method = (ExecutableElement) element;
+      methods.add(method);
+      if (method.getParameters().size() == 1) {
+        setterCounts.merge(method.getSimpleName().toString(), 1, Integer::sum);
+      }
+    }
+
+    List<String> lines = new ArrayList<>();
+    for (ExecutableElement method : methods) {
+      String methodName = method.getSimpleName().toString();
+      TypeMirror returnType = method.getReturnType();
+      ExecutableType memberType = (ExecutableType) types.asMemberOf(beanType, method);
+
+      if (method.getParameters().isEmpty() && returnType.getKind() != TypeKind.VOID) {
+        String name = methodName;
+        if (hasPrefix(methodName, "get")) {
+          name = stripPrefix(methodName, "get");
+        } else if (hasPrefix(methodName, "is") && (returnType.getKind() == TypeKind.BOOLEAN || isClass(returnType, "java.lang.Boolean"))) {
+          name = stripPrefix(methodName, "is");
+        }
+        boolean notNull = returnType.getKind().isPrimitive() || isNotNull(defaultIsNotNull, method.getAnnotationMirrors(), returnType.getAnnotationMirrors());
+        lines.add(String.format(
+            "getter(%s, (%sSerializableFunction1<%s, %s>) %s::%s, %s)",
+            literal(name), LAMBDAS, beanName, boxedName(memberType.getReturnType()), beanName, methodName, notNull
+        ));
+      }
+
+      if (method.getParameters().size() == 1) {
+        TypeMirror valueType = method.getParameters().get(0).asType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+        if (
+            !(
+                isVoid
+                    || isClass(returnType, "java.lang.Void")
+                    || types.isSameType(types.erasure(returnType), types.erasure(valueType))
+                    || types.isSameType(types.erasure(returnType), types.erasure(beanType))
+            )
+        ) {
+          continue;
+        }
+
+        // A method reference to an overloaded method may resolve to the wrong overload if a primitive is involved, as boxing is not explicit.
+        if (setterCounts.get(methodName) > 1 && valueType.getKind().isPrimitive()) {
+          env.getMessager().printMessage(Kind.NOTE, "Overloaded setter " + methodName + " prevents generation of bean description", bean);
+          return null;
+        }
+
+        String name = hasPrefix(methodName, "set") ? stripPrefix(methodName, "set") : methodName;
+        boolean notNull = valueType.getKind().isPrimitive()
+            || isNotNull(defaultIsNotNull, method.getParameters().get(0).getAnnotationMirrors(), valueType.getAnnotationMirrors());
+        String valueName = boxedName(memberType.getParameterTypes().get(0));
+        String lambda = isVoid
+            ? String.format("%sSerializableConsumer2<%s, %s>", LAMBDAS, beanName, valueName)
+            : String.format("%sSerializableFunction2<%s, %s, %s>", LAMBDAS, beanName, valueName, boxedName(memberType.getReturnType()));
+        lines.add(String.format("setter(%s, (%s) %s::%s, %s)", literal(name), lambda, beanName, methodName, notNull));
+      }
+    }
+    return lines;
+  }
+
+
+  /**
+   * Describe a record. A record's properties are exactly its components.
+   *
+   * @param bean the record
+   *
+   * @return the lines that create the record's properties
+   */
+  private List<String> describeRecord(TypeElement bean) {
+    String beanName = bean.getQualifiedName().toString();
+    boolean defaultIsNotNull = defaultIsNotNull(bean);
+
+    List<String> lines = new ArrayList<>();
+    for (RecordComponentElement component : bean.getRecordComponents()) {
+      TypeMirror type = component.asType();
+      boolean notNull = type.getKind().isPrimitive()
+          || isNotNull(defaultIsNotNull, component.getAnnotationMirrors(), component.getAccessor().getAnnotationMirrors(), type.getAnnotationMirrors());
+      lines.add(String.format(
+          "getter(%s, (%sSerializableFunction1<%s, %s>) %s::%s, %s)",
+          literal(component.getSimpleName().toString()), LAMBDAS, beanName, boxedName(type), beanName, component.getAccessor().getSimpleName(), notNull
+      ));
+    }
+    return lines;
+  }
+
+
+  private boolean isClass(TypeMirror type, String name) {
+    return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+  }
+
+
+  private boolean isNamed(AnnotationMirror annotation, String... names) {
+    Element element = annotation.getAnnotationType().asElement();
+    Retention retention = element.getAnnotation(Retention.class);
+    if (retention == null || retention.value() != RetentionPolicy.RUNTIME) {
+      // Not visible at runtime, so the bean tester would not see it.
+      return false;
+    }
+    String simpleName = element.getSimpleName().toString();
+    for (String name : names) {
+      if (simpleName.equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  @SafeVarargs
+  private boolean isNotNull(boolean defaultIsNotNull, List<? extends AnnotationMirror>... annotations) {
+    for (List<? extends AnnotationMirror> list : annotations) {
+      for (AnnotationMirror a : list) {
+        if (defaultIsNotNull) {
+          if (isNamed(a, "Nullable")) {
+            return false;
+          }
+        } else {
+          if (isNamed(a, "NotNull", "NonNull")) {
+            return true;
+          }
+        }
+      }
+    }
+    return defaultIsNotNull;
+  }
+
+
+  private String sourceName(TypeMirror type) {
+    TypeMirror erased = types.erasure(type);
+    switch (erased.getKind()) {
+      case ARRAY:
+        return sourceName(((ArrayType) erased).getComponentType()) + "[]";
+      case DECLARED:
+        return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+      default:
+        if (erased.getKind().isPrimitive()) {
+          return erased.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        return erased.toString();
+    }
+  }
+
+
+  /**
+   * Write the lookup class.
+   */
+  void write() {
+    int dot = className.lastIndexOf('.');
+    String packageName = dot == -1 ? "" : className.substring(0, dot);
+    String simpleName = className.substring(dot + 1);
+
+    Map<String, List<String>> descriptions = new HashMap<>();
+    List<TypeElement> originating = new ArrayList<>();
+    for (Entry<String, TypeElement> entry : beans.entrySet()) {
+      List<String> lines = describe(entry.getValue());
+      if (lines != null) {
+        descriptions.put(entry.getKey(), lines);
+        originating.add(entry.getValue());
+      }
+    }
+
+    try (PrintWriter out = new PrintWriter(env.getFiler().createSourceFile(className, originating.toArray(Element[]::new)).openWriter())) {
+      if (!packageName.isEmpty()) {
+        out.printf("package %s;%n%n", packageName);
+      }
+      out.printf("/**%n * Bean descriptions for the \"%s\" package. Generated by %s.%n */%n", packageName, BeanDescriptionProcessor.class.getName());
+      out.printf("@SuppressWarnings({\"rawtypes\", \"unchecked\"})%n");
+      out.printf("public final class %s extends com.pippsford.beantester.info.GeneratedDescriptionLookup {%n", simpleName);
+
+      int index = 0;
+      for (Entry<String, TypeElement> entry : beans.entrySet()) {
+        List<String> lines = descriptions.get(entry.getKey());
+        if (lines == null) {
+          continue;
+        }
+        out.printf("%n  private static java.util.Collection<com.pippsford.beantester.info.Property> describe%d() {%n", index);
+        out.printf("    java.util.ArrayList<com.pippsford.beantester.info.Property> properties = new java.util.ArrayList<>();%n");
+        for (String line : lines) {
+          out.printf("    properties.add(%s);%n", line);
+        }
+        out.printf("    return properties;%n  }%n%n");
+        index++;
+      }
+
+      out.printf("%n  @Override%n");
+      out.printf("  protected java.util.Collection<com.pippsford.beantester.info.Property> getProperties(Class<?> type) {%n");
+      out.printf("    switch (type.getName()) {%n");
+      index = 0;
+      for (Entry<String, TypeElement> entry : beans.entrySet()) {
+        if (descriptions.containsKey(entry.getKey())) {
+          out.printf("      case %s:%n", literal(entry.getKey()));
+          out.printf("        return type == %s.class ? describe%d() : null;%n", entry.getValue().getQualifiedName(), index);
+          index++;
+        }
+      }
+      out.printf("      default:%n        return null;%n    }%n  }%n%n}%n");
+    } catch (IOException e) {
+      env.getMessager().printMessage(Kind.ERROR, "Unable to write " + className + ": " + e);
+    }
+  }
+
+}
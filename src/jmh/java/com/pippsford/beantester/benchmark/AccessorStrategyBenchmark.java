@@ -0,0 +1,104 @@
+package com.pippsford.beantester.benchmark;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.info.BeanDescription;
+import com.pippsford.beantester.info.BeanHolder;
+import com.pippsford.beantester.info.Specs;
+import com.pippsford.beantester.mirror.AccessorStrategy;
+import com.pippsford.beantester.sample.beans.ApproverManifest;
+import com.pippsford.beantester.sample.beans.BankAccount;
+import com.pippsford.beantester.sample.beans.ErrorResponse;
+import com.pippsford.beantester.sample.beans.LabelledAmount;
+import com.pippsford.beantester.sample.beans.LedgerAccount;
+import com.pippsford.beantester.sample.beans.LedgerManifest;
+
+/**
+ * Compare the start-up cost of the accessor strategies. Each fork describes the sample beans once, reads every property so that the accessors are
+ * bound, and reports how many classes were loaded while doing so.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class AccessorStrategyBenchmark {
+
+  /** Counts the classes loaded during the benchmark. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class ClassCount {
+
+    private final ClassLoadingMXBean bean = ManagementFactory.getClassLoadingMXBean();
+
+    public long classesLoaded;
+
+    private long start;
+
+
+    @Setup(Level.Iteration)
+    public void start() {
+      start = bean.getTotalLoadedClassCount();
+    }
+
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+      classesLoaded = bean.getTotalLoadedClassCount() - start;
+    }
+
+  }
+
+
+
+  private static void readAll(BeanDescription description, Blackhole blackhole) {
+    BeanHolder holder = description.createHolder().setAllProperties(ValueType.PRIMARY);
+    for (String name : holder.getPropertyNames()) {
+      if (holder.isReadable(name)) {
+        blackhole.consume(holder.readActual(name));
+      }
+    }
+  }
+
+
+  @Param({"LAMBDA", "METHOD_HANDLE"})
+  public AccessorStrategy strategy;
+
+
+  @Benchmark
+  public void describe(ClassCount counter, Blackhole blackhole) {
+    // Accessors are bound on first use, so every property is written and read to make each strategy create its accessors.
+    readAll(BeanDescription.create(ApproverManifest.class), blackhole);
+    readAll(BeanDescription.create(BankAccount.class), blackhole);
+    readAll(BeanDescription.create(ErrorResponse.class), blackhole);
+    readAll(BeanDescription.create(LabelledAmount.class, Specs.beanMaker("of", String.class, BigDecimal.class)), blackhole);
+    readAll(BeanDescription.create(LedgerAccount.class), blackhole);
+    readAll(BeanDescription.create(LedgerManifest.class), blackhole);
+  }
+
+
+  @Setup
+  public void setup() {
+    TestContext.get().setAccessorStrategy(strategy);
+  }
+
+}
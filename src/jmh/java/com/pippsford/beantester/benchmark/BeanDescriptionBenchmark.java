@@ -0,0 +1,34 @@
+package com.pippsford.beantester.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pippsford.beantester.info.BeanDescription;
+
+/**
+ * Benchmark creating bean descriptions for the sample beans.
+ */
+@State(Scope.Thread)
+public class BeanDescriptionBenchmark {
+
+  private Class<?> beanClass;
+
+  @Param({"BankAccount", "ErrorResponse", "LedgerAccount", "TypeLabel"})
+  public String beanName;
+
+
+  @Benchmark
+  public BeanDescription create() {
+    return BeanDescription.create(beanClass);
+  }
+
+
+  @Setup
+  public void setup() throws ClassNotFoundException {
+    beanClass = Class.forName("com.pippsford.beantester.sample.beans." + beanName);
+  }
+
+}
@@ -0,0 +1,56 @@
+package com.pippsford.beantester.benchmark;
+
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.ValueFactory;
+import com.pippsford.beantester.factories.FactoryRepository;
+
+/**
+ * Benchmark finding factories in the repository, both when a factory exists and when it does not.
+ */
+@State(Scope.Thread)
+public class FactoryRepositoryBenchmark {
+
+  /** A class with no public creator, so no factory can be found for it. */
+  public static class Unbuildable {
+
+    private Unbuildable() {
+      // not creatable
+    }
+
+
+    public String getValue() {
+      return "value";
+    }
+
+  }
+
+
+
+  private FactoryRepository factories;
+
+
+  @Benchmark
+  public ValueFactory hit() {
+    return factories.getFactory(String.class);
+  }
+
+
+  @Benchmark
+  public Optional<ValueFactory> miss() {
+    return factories.tryGetFactory(Unbuildable.class);
+  }
+
+
+  @Setup
+  public void setup() {
+    factories = TestContext.get().getFactories();
+  }
+
+}
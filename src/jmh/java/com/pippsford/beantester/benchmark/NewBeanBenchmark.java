@@ -0,0 +1,61 @@
+package com.pippsford.beantester.benchmark;
+
+import java.math.BigDecimal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.info.BeanDescription;
+import com.pippsford.beantester.info.BeanHolder;
+import com.pippsford.beantester.info.Specs;
+import com.pippsford.beantester.sample.beans.BankAccount;
+import com.pippsford.beantester.sample.beans.LabelledAmount;
+import com.pippsford.beantester.sample.beans.LedgerAccount;
+import com.pippsford.beantester.sample.beans.TypeLabel;
+
+/**
+ * Benchmark creating beans with each kind of bean creator.
+ */
+@State(Scope.Thread)
+public class NewBeanBenchmark {
+
+  /** The kind of creator used to create the bean. */
+  @Param({"constructor", "builder", "maker", "proxy"})
+  public String creator;
+
+  private BeanHolder holder;
+
+
+  @Benchmark
+  public Object newBean() {
+    return holder.newBean();
+  }
+
+
+  @Setup
+  public void setup() {
+    BeanDescription description;
+    switch (creator) {
+      case "constructor":
+        description = BeanDescription.create(BankAccount.class);
+        break;
+      case "builder":
+        description = BeanDescription.create(LedgerAccount.class);
+        break;
+      case "maker":
+        description = BeanDescription.create(LabelledAmount.class, Specs.beanMaker("of", String.class, BigDecimal.class));
+        break;
+      case "proxy":
+        description = BeanDescription.create(TypeLabel.class);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown creator: " + creator);
+    }
+    holder = description.createHolder().setAllProperties(ValueType.PRIMARY);
+  }
+
+}
@@ -0,0 +1,67 @@
+package com.pippsford.beantester.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.ValueFactory;
+import com.pippsford.beantester.ValueType;
+
+/**
+ * Benchmark creating values with the built-in factories.
+ */
+@State(Scope.Thread)
+public class ValueFactoryBenchmark {
+
+  private static Class<?> forName(String name) throws ClassNotFoundException {
+    switch (name) {
+      case "boolean":
+        return boolean.class;
+      case "char":
+        return char.class;
+      case "double":
+        return double.class;
+      case "int":
+        return int.class;
+      case "long":
+        return long.class;
+      default:
+        return Class.forName(name);
+    }
+  }
+
+
+  private ValueFactory factory;
+
+  @Param({
+      "boolean", "char", "double", "int", "long",
+      "java.lang.String", "java.math.BigDecimal", "java.math.BigInteger",
+      "java.io.File", "java.nio.file.Path", "java.net.URI",
+      "java.time.Duration", "java.time.Instant", "java.time.LocalDate", "java.time.ZonedDateTime",
+      "java.util.Date", "java.util.Locale", "java.util.UUID",
+      "jakarta.json.JsonObject", "com.google.protobuf.ByteString"
+  })
+  public String type;
+
+
+  @Benchmark
+  public Object primary() {
+    return factory.create(ValueType.PRIMARY);
+  }
+
+
+  @Benchmark
+  public Object random() {
+    return factory.create(ValueType.RANDOM);
+  }
+
+
+  @Setup
+  public void setup() throws ClassNotFoundException {
+    factory = TestContext.get().getFactories().getFactory(forName(type));
+  }
+
+}
@@ -0,0 +1,52 @@
+package com.pippsford.beantester.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pippsford.beantester.BeanVerifier;
+import com.pippsford.beantester.NullBehaviour;
+import com.pippsford.beantester.info.Specs;
+import com.pippsford.beantester.info.Specs.Spec;
+import com.pippsford.beantester.sample.beans.ErrorResponse;
+import com.pippsford.beantester.sample.beans.Unpredictable;
+
+/**
+ * Benchmark the full verification of the sample beans.
+ */
+@State(Scope.Thread)
+public class VerifyBenchmark {
+
+  private Class<?> beanClass;
+
+  @Param({"ErrorResponse", "Unpredictable"})
+  public String beanName;
+
+  private Spec[] specs;
+
+
+  @Setup
+  public void setup() {
+    switch (beanName) {
+      case "ErrorResponse":
+        beanClass = ErrorResponse.class;
+        specs = new Spec[]{Specs.notNull("parameters"), Specs.onOmitted(NullBehaviour.VARIABLE, "timestamp")};
+        break;
+      case "Unpredictable":
+        beanClass = Unpredictable.class;
+        specs = new Spec[]{Specs.onNull(NullBehaviour.VARIABLE_NULLABLE, "id"), Specs.onNull(NullBehaviour.VARIABLE, "thing")};
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown bean: " + beanName);
+    }
+  }
+
+
+  @Benchmark
+  public void verify() {
+    BeanVerifier.verify(beanClass, specs);
+  }
+
+}
@@ -1,12 +1,21 @@
 package com.pippsford.beantester;
 
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import com.pippsford.beantester.factories.bean.BeanValueFactory;
 import com.pippsford.beantester.info.BeanDescription;
 import com.pippsford.beantester.info.BeanHolder;
 import com.pippsford.beantester.info.Specs;
+import com.pippsford.beantester.info.Specs.CombinationStrength;
 import com.pippsford.beantester.info.Specs.SkipTest;
 import com.pippsford.beantester.test.Equals;
 import com.pippsford.beantester.test.NullRules;
@@ -30,6 +39,35 @@ public class BeanVerifier {
   }
 
 
+  /**
+   * Verify many beans, spreading the classes across the executor, and report the failures instead of throwing them. Every class is verified in its own test
+   * context which inherits from the calling thread's context. A class which appears more than once is only verified once.
+   *
+   * @param classes  the classes to verify
+   * @param executor the executor which runs the verifications
+   * @param specs    the specifications to customise the verification of every class
+   *
+   * @return the failure for each class that did not verify, in the same order as the input classes
+   */
+  public static Map<Class<?>, Throwable> tryVerifyAll(Collection<Class<?>> classes, Executor executor, Specs.Spec... specs) {
+    TestContext parent = TestContext.get();
+    Map<Class<?>, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+    for (Class<?> clazz : new LinkedHashSet<>(classes)) {
+      futures.put(clazz, CompletableFuture.runAsync(() -> TestContext.runInherited(parent, () -> verifyWithContext(clazz, specs)), executor));
+    }
+
+    Map<Class<?>, Throwable> failures = new LinkedHashMap<>();
+    for (var entry : futures.entrySet()) {
+      try {
+        entry.getValue().join();
+      } catch (CompletionException e) {
+        failures.put(entry.getKey(), e.getCause() != null ? e.getCause() : e);
+      }
+    }
+    return failures;
+  }
+
+
   /**
    * Verify the bean with the given specs.
    *
@@ -43,6 +81,45 @@ public class BeanVerifier {
   }
 
 
+  /**
+   * Verify many beans in parallel using the common fork-join pool. See {@link #verifyAll(Collection, Executor, Specs.Spec...)}.
+   *
+   * @param classes the classes to verify
+   * @param specs   the specifications to customise the verification of every class
+   */
+  public static void verifyAll(Collection<Class<?>> classes, Specs.Spec... specs) {
+    verifyAll(classes, ForkJoinPool.commonPool(), specs);
+  }
+
+
+  /**
+   * Verify many beans, spreading the classes across the executor. Every class is verified in its own test context which inherits from the calling thread's
+   * context, so a repeatable seed set on the caller produces the same values as verifying each class in turn with {@link #verifyWithContext}. A class which
+   * appears more than once is only verified once.
+   *
+   * @param classes  the classes to verify
+   * @param executor the executor which runs the verifications (for example, a fork-join pool or a virtual thread per task executor)
+   * @param specs    the specifications to customise the verification of every class
+   *
+   * @throws AssertionException if any class fails verification. Each individual failure is attached as a suppressed exception.
+   */
+  public static void verifyAll(Collection<Class<?>> classes, Executor executor, Specs.Spec... specs) {
+    Map<Class<?>, Throwable> failures = tryVerifyAll(classes, executor, specs);
+    if (failures.isEmpty()) {
+      return;
+    }
+
+    StringBuilder message = new StringBuilder();
+    message.append(failures.size()).append(" of ").append(new LinkedHashSet<>(classes).size()).append(" classes failed verification:");
+    for (Class<?> clazz : failures.keySet()) {
+      message.append("\n  ").append(clazz.getName());
+    }
+    AssertionException exception = new AssertionException(message.toString());
+    failures.values().forEach(exception::addSuppressed);
+    throw exception;
+  }
+
+
   /**
    * Verify the bean with the given specs.
    *
@@ -73,8 +150,7 @@ public class BeanVerifier {
     }
 
     if (tests.contains(Tests.NULL_RULES)) {
-      NullRules.inferNullBehaviour(info);
-      NullRules.inferOmittedBehaviour(info);
+      NullRules.infer(info);
       NullRules.validate(info);
     }
 
@@ -82,6 +158,7 @@ public class BeanVerifier {
 
     if (tests.contains(Tests.READ_WRITE)) {
       ReadWrite readWrite = new ReadWrite(h);
+      Specs.firstSpec(CombinationStrength.class, specs).ifPresent(spec -> readWrite.combinationStrength(spec.getStrength()));
       readWrite.test();
     }
 
@@ -1,10 +1,16 @@
 package com.pippsford.beantester;
 
 import java.lang.System.Logger.Level;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.random.RandomGenerator;
 import java.util.random.RandomGenerator.SplittableGenerator;
 import java.util.random.RandomGeneratorFactory;
@@ -17,6 +23,7 @@ import com.pippsford.beantester.factories.time.RandomClock;
 import com.pippsford.beantester.info.BeanDescription;
 import com.pippsford.beantester.info.BeanDescriptionLookup;
 import com.pippsford.beantester.info.Specs.Spec;
+import com.pippsford.beantester.mirror.AccessorStrategy;
 
 /**
  * A class that holds the test context. This is to support multi-threading during testing.
@@ -27,6 +34,9 @@ public class TestContext {
 
   private static final TestContext DEFAULT;
 
+  /** Bean description lookups registered with the service loader, such as those generated by the annotation processor. */
+  private static final List<BeanDescriptionLookup> SERVICE_LOOKUPS;
+
   /** A magic value that indicates the seed has not been set. The value is the digits of the 3*sqrt(5). */
   private static final long MAGIC_SEED_NOT_SET = 2236067977499789696L * 3;
 
@@ -51,13 +61,27 @@ public class TestContext {
   }
 
 
+  private static List<BeanDescriptionLookup> loadServiceLookups() {
+    LinkedList<BeanDescriptionLookup> list = new LinkedList<>();
+    try {
+      ServiceLoader.load(BeanDescriptionLookup.class).forEach(list::add);
+    } catch (ServiceConfigurationError e) {
+      System.getLogger(TestContext.class.getName()).log(Level.WARNING, "Unable to load bean description lookups", e);
+    }
+    return List.copyOf(list);
+  }
+
+
   /**
    * Create a new random number generator.
    *
    * @return the new random number generator
    */
   public static RandomGenerator newRandom() {
-    return root.split();
+    // Splitting is not thread-safe, and contexts may be created on many threads at once.
+    synchronized (root) {
+      return root.split();
+    }
   }
 
 
@@ -91,6 +115,33 @@ public class TestContext {
   }
 
 
+  /**
+   * Run a task on this thread with a new context that inherits from the specified parent. The task starts at the top of a structure, and the thread's existing
+   * contexts and structure depth are restored when the task completes.
+   *
+   * @param parent the context to inherit from
+   * @param task   the task to run
+   */
+  static void runInherited(TestContext parent, Runnable task) {
+    LinkedList<TestContext> saved = CONTEXT.get();
+    AtomicInteger savedDepth = ValueFactory.DEPTH.get();
+    LinkedList<TestContext> list = new LinkedList<>();
+    TestContext context = new TestContext();
+    context.inheritFrom(parent);
+    list.add(context);
+    CONTEXT.set(list);
+
+    // A pooled thread may have been left part way through a structure by an earlier task, so the task starts at the top.
+    ValueFactory.DEPTH.set(new AtomicInteger());
+    try {
+      task.run();
+    } finally {
+      CONTEXT.set(saved);
+      ValueFactory.DEPTH.set(savedDepth);
+    }
+  }
+
+
   static {
     RandomGeneratorFactory<?> factory;
     try {
@@ -109,6 +160,7 @@ public class TestContext {
     }
     randomFactory = factory;
     root = (SplittableGenerator) randomFactory.create();
+    SERVICE_LOOKUPS = loadServiceLookups();
 
     DEFAULT = new TestContext();
 
@@ -129,14 +181,35 @@ public class TestContext {
     CONTEXT.remove();
   }
 
+  /** How methods found by reflection are invoked. */
+  @Getter
+  @Setter
+  private AccessorStrategy accessorStrategy = AccessorStrategy.LAMBDA;
+
   /** A clock for time and date related values. */
   @Getter
   private final RandomClock clock = new RandomClock();
 
+  /**
+   * The interaction strength used to combine property values when testing that properties can be written and read. Zero (the default) tests every pair of
+   * property values exhaustively. A positive value uses a covering array of that strength, so 2 tests every pair of values with far fewer beans.
+   */
+  @Getter
+  @Setter
+  private int combinationStrength = 0;
+
   /** The factories for creating values. */
   @Getter
   private final FactoryRepository factories;
 
+  /**
+   * The directory for the cache of inferred null and omitted behaviour, or null if the behaviour is inferred every time. The default is taken from the
+   * "beantester.inferenceCache" system property, so a build can set it to a directory under its build directory. Parallel test workers may share the directory.
+   */
+  @Getter
+  @Setter
+  private Path inferenceCache = Optional.ofNullable(System.getProperty("beantester.inferenceCache")).map(Path::of).orElse(null);
+
   /** Lookups for bean descriptions. */
   private final LinkedList<BeanDescriptionLookup> lookups = new LinkedList<>();
 
@@ -154,10 +227,16 @@ public class TestContext {
   /** A random seed for repeatable tests. */
   private long randomSeed = MAGIC_SEED_NOT_SET;
 
+  /** The number of randomized trials in each test. If there is a time budget, this is the minimum number of trials. */
   @Getter
   @Setter
   private int runs = 5;
 
+  /** If true, bean holders build a bean once after each change to their values and serve all reads from it. */
+  @Getter
+  @Setter
+  private boolean snapshotReads = false;
+
   @Getter
   private String specSuffix = "$SpecFilter";
 
@@ -168,6 +247,14 @@ public class TestContext {
 
   private long structureId = 0;
 
+  /**
+   * The time allowed for each randomized test of a bean, or null for a fixed number of trials. When set, trials are run until the budget is spent, but always
+   * at least the number of runs.
+   */
+  @Getter
+  @Setter
+  private Duration timeBudget = null;
+
 
   /** New instance. */
   private TestContext() {
@@ -278,6 +365,12 @@ public class TestContext {
         return description;
       }
     }
+    for (BeanDescriptionLookup lookup : SERVICE_LOOKUPS) {
+      Optional<BeanDescription> description = lookup.getDescription(clazz, specs);
+      if (description.isPresent()) {
+        return description;
+      }
+    }
     return Optional.empty();
   }
 
@@ -287,6 +380,22 @@ public class TestContext {
   }
 
 
+  /**
+   * Check if a randomized test should run another trial.
+   *
+   * @param completed the number of trials completed so far
+   * @param startTime the value of {@link System#nanoTime()} when the test started
+   *
+   * @return true if another trial should be run
+   */
+  public boolean hasMoreRuns(int completed, long startTime) {
+    if (completed < runs) {
+      return true;
+    }
+    return timeBudget != null && System.nanoTime() - startTime < timeBudget.toNanos();
+  }
+
+
   private void inheritFrom(TestContext source) {
     if (source.randomSeed != MAGIC_SEED_NOT_SET) {
       setRepeatable(source.randomSeed);
@@ -302,6 +411,16 @@ public class TestContext {
 
     preferWriters = source.preferWriters;
 
+    combinationStrength = source.combinationStrength;
+
+    snapshotReads = source.snapshotReads;
+
+    inferenceCache = source.inferenceCache;
+
+    timeBudget = source.timeBudget;
+
+    accessorStrategy = source.accessorStrategy;
+
     factories.copy(source.factories);
 
     lookups.addAll(source.lookups);
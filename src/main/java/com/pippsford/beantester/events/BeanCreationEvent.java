@@ -0,0 +1,65 @@
+package com.pippsford.beantester.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the creation of a bean by a bean creator.
+ */
+@Name("com.pippsford.beantester.BeanCreation")
+@Label("Bean Creation")
+@Category("Bean Tester")
+@Description("A bean created by a bean creator")
+@StackTrace(false)
+public class BeanCreationEvent extends Event {
+
+  /**
+   * Start timing a bean creation.
+   *
+   * @param beanClass the bean's class
+   * @param creator   the bean creator
+   *
+   * @return the event
+   */
+  public static BeanCreationEvent start(Class<?> beanClass, Object creator) {
+    BeanCreationEvent event = new BeanCreationEvent();
+    event.beanClass = beanClass;
+    event.creator = creator.getClass();
+    event.begin();
+    return event;
+  }
+
+
+  @Label("Bean Class")
+  private Class<?> beanClass;
+
+  @Label("Creator")
+  private Class<?> creator;
+
+  @Label("Parameter Count")
+  private int parameterCount;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+
+  /**
+   * Finish timing the creation, and commit the event if it is being recorded. This should be called even if the creation fails.
+   *
+   * @param parameterCount the number of parameters passed to the creator
+   * @param succeeded      true if the creation completed normally, false if it failed
+   */
+  public void finish(int parameterCount, boolean succeeded) {
+    end();
+    if (shouldCommit()) {
+      this.parameterCount = parameterCount;
+      this.succeeded = succeeded;
+      commit();
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.pippsford.beantester.events;
+
+import java.lang.reflect.Type;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for resolving a value factory that was not already known to a factory repository.
+ */
+@Name("com.pippsford.beantester.FactoryResolution")
+@Label("Factory Resolution")
+@Category("Bean Tester")
+@Description("Resolution of a value factory by the factory lookups")
+@StackTrace(false)
+public class FactoryResolutionEvent extends Event {
+
+  /**
+   * Start timing a factory resolution.
+   *
+   * @return the event
+   */
+  public static FactoryResolutionEvent start() {
+    FactoryResolutionEvent event = new FactoryResolutionEvent();
+    event.begin();
+    return event;
+  }
+
+
+  @Label("Found")
+  private boolean found;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+  @Label("Type")
+  private String type;
+
+
+  /**
+   * Finish timing the resolution, and commit the event if it is being recorded. This should be called even if the resolution fails.
+   *
+   * @param type      the type that a factory was required for
+   * @param found     true if a factory was found
+   * @param succeeded true if the resolution completed normally, false if it failed
+   */
+  public void finish(Type type, boolean found, boolean succeeded) {
+    end();
+    if (shouldCommit()) {
+      this.type = type.getTypeName();
+      this.found = found;
+      this.succeeded = succeeded;
+      commit();
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+package com.pippsford.beantester.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a phase in the verification of a bean class.
+ */
+@Name("com.pippsford.beantester.Phase")
+@Label("Verification Phase")
+@Category("Bean Tester")
+@Description("A phase in the verification of a bean class")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+  /** Phase that creates the bean description. */
+  public static final String DESCRIPTION = "Description";
+
+  /** Phase that tests the equals and hash code methods. */
+  public static final String EQUALS = "Equals";
+
+  /** Phase that infers the null and omitted behaviour of the properties. */
+  public static final String NULL_INFERENCE = "Null Inference";
+
+  /** Phase that tests properties can be written and read. */
+  public static final String READ_WRITE = "Read Write";
+
+
+  /**
+   * Start timing a phase.
+   *
+   * @param phase     the phase
+   * @param beanClass the bean class being verified
+   *
+   * @return the event
+   */
+  public static PhaseEvent start(String phase, Class<?> beanClass) {
+    PhaseEvent event = new PhaseEvent();
+    event.phase = phase;
+    event.beanClass = beanClass;
+    event.begin();
+    return event;
+  }
+
+
+  @Label("Bean Class")
+  private Class<?> beanClass;
+
+  @Label("Phase")
+  private String phase;
+
+  @Label("Property Count")
+  private int propertyCount;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+
+  /**
+   * Finish timing the phase, and commit the event if it is being recorded. This should be called even if the phase fails.
+   *
+   * @param propertyCount the number of properties involved in the phase
+   * @param succeeded     true if the phase completed normally, false if it failed
+   */
+  public void finish(int propertyCount, boolean succeeded) {
+    end();
+    if (shouldCommit()) {
+      this.propertyCount = propertyCount;
+      this.succeeded = succeeded;
+      commit();
+    }
+  }
+
+}
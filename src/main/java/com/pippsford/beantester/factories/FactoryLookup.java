@@ -1,13 +1,15 @@
 package com.pippsford.beantester.factories;
 
 import java.lang.reflect.Type;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 import com.pippsford.beantester.ValueFactory;
 
 
 /**
- * For looking up Factory instances.
+ * For looking up Factory instances. A lookup is only asked about types in the families it declares.
  */
 public interface FactoryLookup {
 
@@ -37,4 +39,15 @@ public interface FactoryLookup {
     return Optional.empty();
   }
 
+
+  /**
+   * Get the families of types this lookup can create factories for. A lookup is not asked for the factory of a type in another family. Lookups are always
+   * asked for property factories, whatever the family of the property's type. By default, a lookup is asked about every type.
+   *
+   * @return the families of types this lookup handles
+   */
+  default Set<TypeFamily> getTypeFamilies() {
+    return EnumSet.allOf(TypeFamily.class);
+  }
+
 }
@@ -1,15 +1,21 @@
 package com.pippsford.beantester.factories;
 
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.events.FactoryResolutionEvent;
 import com.pippsford.beantester.factories.basic.BasicFactories;
 import com.pippsford.beantester.factories.bean.BeanFactoryLookup;
 import com.pippsford.beantester.factories.io.FileFactories;
@@ -24,16 +30,236 @@ import com.pippsford.beantester.mirror.Executables;
 
 /**
  * Repository for value factories in the current test context.
+ *
+ * <p>A repository may be shared between threads. Each type is resolved at most once: a thread that needs a type another thread is resolving waits for that
+ * resolution. A thread that needs a type it is already resolving, which happens when a bean refers to its own type, continues without waiting, as does a
+ * thread whose wait would complete a cycle of waiting threads.</p>
+ *
+ * <p>Repositories are layered. A repository holds only its own additions, and delegates misses to the frozen layers it inherited. Copying a repository into a
+ * new one freezes the source's additions as a layer that both repositories then share, so copying does not depend on how many factories are registered.</p>
+ *
+ * <p>Lookups are indexed by the families of types they declare they handle, so only the lookups that handle a type's family are asked about it.</p>
+ *
+ * <p>Types which have no factory are remembered with the reason, so the lookups are not asked about them again until a factory or lookup is added. Likewise,
+ * each property's override, or lack of one, is remembered until an override or lookup is added.</p>
  */
 public class FactoryRepository {
 
+  /**
+   * The factories, lookups and overrides added to a repository. A repository adds to its own layer. Once a layer has been frozen as the parent of other layers,
+   * no more explicit additions are made to it.
+   */
+  private static final class Layer {
+
+    /** The number of layers in the chain that ends at this layer. */
+    private final int depth;
+
+    private final ConcurrentHashMap<Type, ValueFactory> factories = new ConcurrentHashMap<>();
+
+    /** The lookups added to this layer, oldest first. */
+    private final CopyOnWriteArrayList<FactoryLookup> factoryLookups = new CopyOnWriteArrayList<>();
+
+    /** The lookups added to this layer which handle each family of types, oldest first. */
+    private final EnumMap<TypeFamily, CopyOnWriteArrayList<FactoryLookup>> lookupsByFamily = new EnumMap<>(TypeFamily.class);
+
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, ValueFactory>> overrides = new ConcurrentHashMap<>();
+
+    /** The layer this layer was added over, or null. */
+    private final Layer parent;
+
+
+    Layer(Layer parent) {
+      this.parent = parent;
+      depth = parent != null ? parent.depth + 1 : 1;
+      for (TypeFamily family : TypeFamily.values()) {
+        lookupsByFamily.put(family, new CopyOnWriteArrayList<>());
+      }
+    }
+
+
+    /**
+     * Add a lookup to this layer, and index it by the families of types it handles.
+     *
+     * @param lookup the lookup
+     */
+    void addLookup(FactoryLookup lookup) {
+      factoryLookups.add(lookup);
+      for (TypeFamily family : lookup.getTypeFamilies()) {
+        lookupsByFamily.get(family).add(lookup);
+      }
+    }
+
+
+    /**
+     * Find a factory registered in this layer or its parents.
+     *
+     * @param type the factory's type
+     *
+     * @return the factory, or null
+     */
+    ValueFactory findFactory(Type type) {
+      for (Layer layer = this; layer != null; layer = layer.parent) {
+        ValueFactory factory = layer.factories.get(type);
+        if (factory != null) {
+          return factory;
+        }
+      }
+      return null;
+    }
+
+
+    /**
+     * Find a property's override registered in this layer or its parents.
+     *
+     * @param beanClass    the class that has the property
+     * @param propertyName the property's name
+     *
+     * @return the factory, or null
+     */
+    ValueFactory findOverride(Class<?> beanClass, String propertyName) {
+      for (Layer layer = this; layer != null; layer = layer.parent) {
+        Map<String, ValueFactory> map = layer.overrides.get(beanClass);
+        ValueFactory factory = map != null ? map.get(propertyName) : null;
+        if (factory != null) {
+          return factory;
+        }
+      }
+      return null;
+    }
+
+
+    /**
+     * Create a single layer that holds the same content as this chain of layers.
+     *
+     * @return the new layer
+     */
+    Layer flatten() {
+      Layer layer = new Layer(null);
+      mergeInto(layer);
+      return layer;
+    }
+
+
+    boolean isEmpty() {
+      return factories.isEmpty() && factoryLookups.isEmpty() && overrides.isEmpty();
+    }
+
+
+    /**
+     * Ask the lookups in this layer and its parents for a property's override. Lookups are asked oldest first.
+     *
+     * @param beanClass    the class that has the property
+     * @param propertyName the property's name
+     * @param propertyType the property's type
+     *
+     * @return the factory, if found
+     */
+    Optional<ValueFactory> lookupOverride(Class<?> beanClass, String propertyName, Type propertyType) {
+      if (parent != null) {
+        Optional<ValueFactory> optionalFactory = parent.lookupOverride(beanClass, propertyName, propertyType);
+        if (optionalFactory.isPresent()) {
+          return optionalFactory;
+        }
+      }
+      // Every lookup is asked, as a property's factory need not be in the family of the property's declared type
+      for (FactoryLookup lookup : factoryLookups) {
+        Optional<ValueFactory> optionalFactory = lookup.getFactory(beanClass, propertyName, propertyType);
+        if (optionalFactory.isPresent()) {
+          return optionalFactory;
+        }
+      }
+      return Optional.empty();
+    }
+
+
+    /**
+     * Add the content of this chain of layers to another layer. Content in later layers replaces content in earlier ones.
+     *
+     * @param target the layer to add to
+     */
+    void mergeInto(Layer target) {
+      if (parent != null) {
+        parent.mergeInto(target);
+      }
+      target.factories.putAll(factories);
+      factoryLookups.forEach(target::addLookup);
+      for (var e : overrides.entrySet()) {
+        target.overrides.computeIfAbsent(e.getKey(), k -> new ConcurrentHashMap<>()).putAll(e.getValue());
+      }
+    }
+
+  }
+
+
+
+  /**
+   * A property whose override has been resolved.
+   *
+   * @param beanClass    the class that has the property
+   * @param propertyName the property's name
+   * @param propertyType the property's type
+   */
+  private record OverrideKey(Class<?> beanClass, String propertyName, Type propertyType) {
+
+  }
+
+
+
+  /**
+   * A resolution of a type's factory which is in progress.
+   *
+   * @param owner  the thread doing the resolution
+   * @param result the result of the resolution
+   */
+  private record Resolution(Thread owner, CompletableFuture<ValueFactory> result) {
+
+  }
+
+
+  /** The most layers a repository can inherit before they are flattened into one, which limits the cost of a miss. */
+  private static final int MAX_DEPTH = 8;
+
+  /** The resolutions that each waiting thread is waiting for. */
+  private static final ConcurrentHashMap<Thread, Resolution> WAITING = new ConcurrentHashMap<>();
+
+
+  /**
+   * Would waiting for a resolution complete a cycle of threads waiting for each other?.
+   *
+   * @param resolution the resolution the current thread would wait for
+   *
+   * @return true if waiting would deadlock
+   */
+  private static boolean isCycle(Resolution resolution) {
+    Thread current = Thread.currentThread();
+    Resolution next = resolution;
+    // A thread waits for at most one resolution at a time, so the chain is a simple path unless it loops back to this thread.
+    for (int i = WAITING.size(); next != null && i >= 0; i--) {
+      if (next.owner() == current) {
+        return true;
+      }
+      next = WAITING.get(next.owner());
+    }
+    return false;
+  }
+
+
   private final BeanFactoryLookup beanFactoryLookup = new BeanFactoryLookup();
 
-  private final HashMap<Type, ValueFactory> factories = new HashMap<>();
+  /** This repository's own layer, which holds its additions and is added over the layers it inherited. */
+  private volatile Layer layer = new Layer(null);
 
-  private final List<FactoryLookup> factoryLookups = new ArrayList<>();
+  /** The types which have no factory, and the reasons. Replaced rather than cleared, so resolutions begun before a change cannot record stale misses. */
+  private volatile ConcurrentHashMap<Type, String> misses = new ConcurrentHashMap<>();
 
-  private final HashMap<Class<?>, HashMap<String, ValueFactory>> overrides = new HashMap<>();
+  /** The resolutions which are currently in progress. */
+  private final ConcurrentHashMap<Type, Resolution> resolutions = new ConcurrentHashMap<>();
+
+  /** The resolved overrides of properties. An empty optional records that a property has no override. Replaced rather than cleared, like the misses. */
+  private volatile ConcurrentHashMap<OverrideKey, Optional<ValueFactory>> resolvedOverrides = new ConcurrentHashMap<>();
+
+  /** Identifies the factories this repository provides. Replaced whenever factories are added, and shared with an empty repository that copies this one. */
+  private volatile Object version = new Object();
 
 
   /**
@@ -42,8 +268,11 @@ public class FactoryRepository {
    *
    * @param valueFactory The Factory to add to the repository.
    */
-  public void addFactory(ValueFactory valueFactory) {
-    factories.put(valueFactory.getType(), Objects.requireNonNull(valueFactory));
+  public synchronized void addFactory(ValueFactory valueFactory) {
+    layer.factories.put(valueFactory.getType(), Objects.requireNonNull(valueFactory));
+    misses = new ConcurrentHashMap<>();
+    beanFactoryLookup.clearFailures();
+    version = new Object();
   }
 
 
@@ -67,30 +296,74 @@ public class FactoryRepository {
    * @param propertyName the property name
    * @param valueFactory The Factory to add to the repository.
    */
-  public void addFactory(Class<?> beanClass, String propertyName, ValueFactory valueFactory) {
-    overrides.computeIfAbsent(beanClass, k -> new HashMap<>()).put(propertyName, valueFactory);
+  public synchronized void addFactory(Class<?> beanClass, String propertyName, ValueFactory valueFactory) {
+    layer.overrides.computeIfAbsent(beanClass, k -> new ConcurrentHashMap<>()).put(propertyName, valueFactory);
+    resolvedOverrides = new ConcurrentHashMap<>();
+    version = new Object();
   }
 
 
   /**
    * Add the specified FactoryLookup. The factory lookups are consulted after specific factories.
    */
-  public void addFactoryLookup(FactoryLookup factoryLookup) {
-    factoryLookups.add(Objects.requireNonNull(factoryLookup));
+  public synchronized void addFactoryLookup(FactoryLookup factoryLookup) {
+    layer.addLookup(Objects.requireNonNull(factoryLookup));
+    misses = new ConcurrentHashMap<>();
+    beanFactoryLookup.clearFailures();
+    resolvedOverrides = new ConcurrentHashMap<>();
+    version = new Object();
+  }
+
+
+  private ValueFactory awaitResolution(Type type, Resolution resolution) {
+    Thread current = Thread.currentThread();
+    WAITING.put(current, resolution);
+    try {
+      if (!isCycle(resolution)) {
+        return resolution.result().join();
+      }
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw (Error) cause;
+    } finally {
+      WAITING.remove(current);
+    }
+
+    // This thread is already resolving the type, or another thread needs this thread to finish the resolution, so resolve the type without waiting.
+    return resolveFactory(type);
   }
 
 
   /**
-   * Copy the specified factories into this repository.
+   * Copy the specified factories into this repository. If this repository is empty, it shares the specified repository's factories rather than copying them.
    *
    * @param factories the factories to copy
    */
   public void copy(FactoryRepository factories) {
-    this.factories.putAll(factories.factories);
-    this.factoryLookups.addAll(factories.factoryLookups);
+    Layer inherited;
+    Object inheritedVersion;
+    synchronized (factories) {
+      inherited = factories.freeze();
+      inheritedVersion = factories.version;
+    }
+    if (inherited == null) {
+      return;
+    }
 
-    for (var e : factories.overrides.entrySet()) {
-      this.overrides.computeIfAbsent(e.getKey(), k -> new HashMap<>()).putAll(e.getValue());
+    synchronized (this) {
+      if (layer.parent == null && layer.isEmpty()) {
+        layer = new Layer(inherited);
+        version = inheritedVersion;
+      } else {
+        inherited.mergeInto(layer);
+        version = new Object();
+      }
+      misses = new ConcurrentHashMap<>();
+      beanFactoryLookup.clearFailures();
+      resolvedOverrides = new ConcurrentHashMap<>();
     }
   }
 
@@ -120,7 +393,7 @@ public class FactoryRepository {
   public ValueFactory getFactory(Type type) {
     ValueFactory factory = getFactoryInternal(type);
     if (factory == null) {
-      throw new NoSuchFactoryException("No factory found for " + type);
+      throw new NoSuchFactoryException("No factory found for " + type + ": " + misses.getOrDefault(type, "the repository changed"));
     }
     return factory;
   }
@@ -141,39 +414,78 @@ public class FactoryRepository {
   }
 
 
+  /**
+   * Freeze this repository's additions so they can be shared. This repository's further additions are held in a new layer over the frozen one.
+   *
+   * @return the frozen layers, or null if this repository is empty
+   */
+  private synchronized Layer freeze() {
+    Layer current = layer;
+    if (current.isEmpty()) {
+      return current.parent;
+    }
+
+    Layer frozen = current.depth > MAX_DEPTH ? current.flatten() : current;
+    layer = new Layer(frozen);
+    return frozen;
+  }
+
+
   private ValueFactory getFactoryInternal(Type type) {
-    // First check the factories map
-    ValueFactory factory = factories.get(type);
+    // First check the registered factories
+    ValueFactory factory = layer.findFactory(type);
     if (factory != null) {
       return factory;
     }
+    ConcurrentHashMap<Type, String> knownMisses = misses;
+    if (knownMisses.containsKey(type)) {
+      return null;
+    }
 
-    // Now try the lookups, most recently added first
-    int p = factoryLookups.size();
-    while (p-- > 0) {
-      FactoryLookup lookup = factoryLookups.get(p);
-      Optional<ValueFactory> optionalFactory = lookup.getFactory(type);
-      if (optionalFactory.isPresent()) {
-        factory = optionalFactory.get();
-        factories.put(type, factory);
-        return factory;
-      }
+    Resolution resolution = new Resolution(Thread.currentThread(), new CompletableFuture<>());
+    Resolution existing = resolutions.putIfAbsent(type, resolution);
+    if (existing != null) {
+      return awaitResolution(type, existing);
     }
 
-    // Finally, try the bean factory lookup
-    Optional<ValueFactory> optionalFactory = beanFactoryLookup.getFactory(type);
-    if (optionalFactory.isPresent()) {
-      factory = optionalFactory.get();
-      factories.put(type, factory);
+    try {
+      // Another thread may have finished resolving the type before this thread claimed it.
+      factory = layer.findFactory(type);
+      if (factory == null) {
+        factory = resolveFactory(type);
+        if (factory == null) {
+          knownMisses.put(type, missReason(type));
+        }
+      }
+      resolution.result().complete(factory);
       return factory;
+    } catch (RuntimeException | Error e) {
+      resolution.result().completeExceptionally(e);
+      throw e;
+    } finally {
+      resolutions.remove(type, resolution);
     }
+  }
 
-    if (!(type instanceof Class<?>)) {
-      return getFactory(Executables.getRawType(type));
-    }
 
-    // not found
-    return null;
+  /**
+   * Get the types which this repository has no factory for, and the reasons no factory was found. The reasons are forgotten when a factory or lookup is added.
+   *
+   * @return the types and reasons
+   */
+  public Map<Type, String> getMisses() {
+    return Map.copyOf(misses);
+  }
+
+
+  /**
+   * Get an object which identifies the factories this repository provides. The version changes whenever factories or lookups are added, so anything derived
+   * from the factories can be re-used for as long as the version is unchanged.
+   *
+   * @return the version
+   */
+  public Object getVersion() {
+    return version;
   }
 
 
@@ -183,7 +495,11 @@ public class FactoryRepository {
    * @return the registered classes
    */
   Set<Type> getRegisteredClasses() {
-    return factories.keySet();
+    HashSet<Type> types = new HashSet<>();
+    for (Layer l = layer; l != null; l = l.parent) {
+      types.addAll(l.factories.keySet());
+    }
+    return types;
   }
 
 
@@ -201,6 +517,78 @@ public class FactoryRepository {
   }
 
 
+  private ValueFactory lookupFactory(Type type) {
+    // Try the lookups that handle the type's family, most recently added first
+    TypeFamily family = TypeFamily.of(type);
+    for (Layer l = layer; l != null; l = l.parent) {
+      List<FactoryLookup> factoryLookups = l.lookupsByFamily.get(family);
+      int p = factoryLookups.size();
+      while (p-- > 0) {
+        FactoryLookup lookup = factoryLookups.get(p);
+        Optional<ValueFactory> optionalFactory = lookup.getFactory(type);
+        if (optionalFactory.isPresent()) {
+          return register(type, optionalFactory.get());
+        }
+      }
+    }
+
+    // Finally, try the bean factory lookup
+    Optional<ValueFactory> optionalFactory = beanFactoryLookup.getFactory(type);
+    if (optionalFactory.isPresent()) {
+      return register(type, optionalFactory.get());
+    }
+
+    if (!(type instanceof Class<?>)) {
+      return getFactory(Executables.getRawType(type));
+    }
+
+    // not found
+    return null;
+  }
+
+  private String missReason(Type type) {
+    return beanFactoryLookup.getFailure(type)
+        .map(t -> "creating a bean failed with " + t)
+        .orElse("no factory lookup supports the type");
+  }
+
+
+  /**
+   * Register a resolved factory. If a factory was registered while the type was being resolved, that factory is kept. This holds the same lock as
+   * {@link #freeze()}, so a resolution that overlaps a copy adds to this repository's current layer and never to a frozen, shared layer.
+   */
+  private synchronized ValueFactory register(Type type, ValueFactory factory) {
+    ValueFactory existing = layer.findFactory(type);
+    if (existing != null) {
+      return existing;
+    }
+    layer.factories.put(type, factory);
+    return factory;
+  }
+
+
+  /**
+   * Resolve a factory with the lookups, recording the resolution for the flight recorder.
+   *
+   * @param type the type
+   *
+   * @return the factory, or null if no lookup supports the type
+   */
+  private ValueFactory resolveFactory(Type type) {
+    FactoryResolutionEvent event = FactoryResolutionEvent.start();
+    ValueFactory factory = null;
+    boolean succeeded = false;
+    try {
+      factory = lookupFactory(type);
+      succeeded = true;
+      return factory;
+    } finally {
+      event.finish(type, factory != null, succeeded);
+    }
+  }
+
+
+
   /**
    * Try to get a factory for the specified type.
    *
@@ -223,25 +611,21 @@ public class FactoryRepository {
    * @return the factory, if found
    */
   public Optional<ValueFactory> tryGetOverride(Class<?> beanClass, String propertyName, Type propertyType) {
-    HashMap<String, ValueFactory> map = overrides.computeIfAbsent(beanClass, k -> new HashMap<>());
-
-    // Try known overrides
-    ValueFactory factory = map.get(propertyName);
-    if (factory != null) {
-      return Optional.of(factory);
+    OverrideKey key = new OverrideKey(beanClass, propertyName, propertyType);
+    ConcurrentHashMap<OverrideKey, Optional<ValueFactory>> resolved = resolvedOverrides;
+    Optional<ValueFactory> optionalFactory = resolved.get(key);
+    if (optionalFactory != null) {
+      return optionalFactory;
     }
 
-    // Try the factory lookups
-    for (FactoryLookup lookup : factoryLookups) {
-      Optional<ValueFactory> optionalFactory = lookup.getFactory(beanClass, propertyName, propertyType);
-      if (optionalFactory.isPresent()) {
-        map.put(propertyName, optionalFactory.get());
-        return optionalFactory;
-      }
-    }
+    // Try known overrides, and then the factory lookups, oldest first
+    Layer current = layer;
+    ValueFactory factory = current.findOverride(beanClass, propertyName);
+    optionalFactory = factory != null ? Optional.of(factory) : current.lookupOverride(beanClass, propertyName, propertyType);
 
-    // No override
-    return Optional.empty();
+    // Lookups may ask for other overrides, so the result is recorded after it is found rather than computed inside the map
+    Optional<ValueFactory> existing = resolved.putIfAbsent(key, optionalFactory);
+    return existing != null ? existing : optionalFactory;
   }
 
 }
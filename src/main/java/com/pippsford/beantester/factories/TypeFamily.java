@@ -0,0 +1,69 @@
+package com.pippsford.beantester.factories;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+import com.pippsford.beantester.mirror.Executables;
+
+/**
+ * The families of types that factory lookups handle. A factory repository only asks a lookup about a type if the lookup declares the type's family.
+ */
+public enum TypeFamily {
+  /** Arrays. */
+  ARRAY,
+
+  /** Sub-types of {@link Collection} or {@link Map}. */
+  COLLECTION,
+
+  /** Enumerations. */
+  ENUM,
+
+  /** {@link Optional}, {@link OptionalInt}, {@link OptionalLong} and {@link OptionalDouble}. */
+  OPTIONAL,
+
+  /** Primitive types, including void. */
+  PRIMITIVE,
+
+  /** Every other type. */
+  OTHER;
+
+  private static final ClassValue<TypeFamily> FAMILIES = new ClassValue<>() {
+    @Override
+    protected TypeFamily computeValue(Class<?> type) {
+      if (type.isPrimitive()) {
+        return PRIMITIVE;
+      }
+      if (type.isArray()) {
+        return ARRAY;
+      }
+      if (type.isEnum()) {
+        return ENUM;
+      }
+      if (type == Optional.class || type == OptionalInt.class || type == OptionalLong.class || type == OptionalDouble.class) {
+        return OPTIONAL;
+      }
+      if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+        return COLLECTION;
+      }
+      return OTHER;
+    }
+  };
+
+
+  /**
+   * Get the family of a type. A generic type is in the family of its raw type.
+   *
+   * @param type the type
+   *
+   * @return the type's family
+   */
+  public static TypeFamily of(Type type) {
+    return FAMILIES.get(Executables.getRawType(type));
+  }
+
+}
@@ -5,6 +5,7 @@ import static com.pippsford.beantester.mirror.Executables.getRawType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.util.Optional;
+import java.util.Set;
 
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueFactory;
@@ -12,6 +13,7 @@ import com.pippsford.beantester.ValueType;
 import com.pippsford.beantester.factories.FactoryLookup;
 import com.pippsford.beantester.factories.FactoryRepository;
 import com.pippsford.beantester.factories.NoSuchFactoryException;
+import com.pippsford.beantester.factories.TypeFamily;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -83,4 +85,10 @@ public class ArrayFactoryLookup implements FactoryLookup {
   }
 
 
+  @Override
+  public Set<TypeFamily> getTypeFamilies() {
+    return Set.of(TypeFamily.ARRAY);
+  }
+
+
 }
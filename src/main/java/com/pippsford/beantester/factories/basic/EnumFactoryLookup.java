@@ -2,10 +2,12 @@ package com.pippsford.beantester.factories.basic;
 
 import java.lang.reflect.Type;
 import java.util.Optional;
+import java.util.Set;
 
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.factories.FactoryLookup;
+import com.pippsford.beantester.factories.TypeFamily;
 
 /**
  * FactoryLookup for EnumFactory instances.
@@ -49,4 +51,10 @@ public class EnumFactoryLookup implements FactoryLookup {
     ));
   }
 
+
+  @Override
+  public Set<TypeFamily> getTypeFamilies() {
+    return Set.of(TypeFamily.ENUM);
+  }
+
 }
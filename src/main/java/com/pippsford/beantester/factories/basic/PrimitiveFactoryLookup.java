@@ -3,11 +3,13 @@ package com.pippsford.beantester.factories.basic;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Type;
 import java.util.Optional;
+import java.util.Set;
 
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.factories.FactoryLookup;
 import com.pippsford.beantester.factories.NoSuchFactoryException;
+import com.pippsford.beantester.factories.TypeFamily;
 
 /**
  * A lookup for factories handling primitive types.
@@ -31,4 +33,10 @@ public class PrimitiveFactoryLookup implements FactoryLookup {
     return Optional.of(TestContext.get().getFactories().getFactory(methodType.wrap().returnType()));
   }
 
+
+  @Override
+  public Set<TypeFamily> getTypeFamilies() {
+    return Set.of(TypeFamily.PRIMITIVE);
+  }
+
 }
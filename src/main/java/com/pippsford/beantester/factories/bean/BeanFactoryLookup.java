@@ -2,9 +2,9 @@ package com.pippsford.beantester.factories.bean;
 
 import java.lang.System.Logger.Level;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.ValueType;
@@ -31,7 +31,34 @@ public class BeanFactoryLookup implements FactoryLookup {
   }
 
 
-  private final Map<Class<?>, ValueFactory> knownFactories = new HashMap<>();
+  /**
+   * The failures of classes whose factories could not be created. Replaced rather than cleared, so a creation begun before the factories changed cannot record
+   * a stale failure.
+   */
+  private volatile Map<Class<?>, Throwable> failures = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, ValueFactory> knownFactories = new ConcurrentHashMap<>();
+
+
+  /**
+   * Forget the classes whose factories could not be created, so they are tried again. A failure may be caused by a missing factory, so the failures are
+   * forgotten whenever factories or lookups are added.
+   */
+  public void clearFailures() {
+    failures = new ConcurrentHashMap<>();
+  }
+
+
+  /**
+   * Get the reason a factory could not be created for a type.
+   *
+   * @param type the type
+   *
+   * @return the failure, if creating the type's factory failed
+   */
+  public Optional<Throwable> getFailure(Type type) {
+    return Optional.ofNullable(failures.get(type));
+  }
 
 
   @Override
@@ -43,6 +70,10 @@ public class BeanFactoryLookup implements FactoryLookup {
     if (factory != null) {
       return Optional.of(factory);
     }
+    Map<Class<?>, Throwable> knownFailures = failures;
+    if (knownFailures.containsKey(clazz)) {
+      return Optional.empty();
+    }
 
     try {
       BeanDescription information = BeanDescription.create(clazz);
@@ -66,6 +97,9 @@ public class BeanFactoryLookup implements FactoryLookup {
       // Nothing thrown - so the factory works.
       return Optional.of(factory);
     } catch (Throwable t) {
+      // Remember the failure, so the bean is not tested and the failure is not logged again
+      knownFactories.remove(clazz);
+      knownFailures.put(clazz, t);
       System.getLogger(BeanFactoryLookup.class.getName()).log(Level.INFO, "Failed to create factory for: " + clazz, t);
       return Optional.empty();
     }
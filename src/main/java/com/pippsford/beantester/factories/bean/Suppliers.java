@@ -8,13 +8,13 @@ import com.pippsford.beantester.info.BeanHolder;
 
 /**
  * Supplies beans. If a bean type has a recursive reference to itself the two beans must be created independently. This class manages the multiple BeanHolders
- * required for that.
+ * required for that. The holders are kept per thread, as the same factory may be shared by contexts on different threads.
  */
 class Suppliers {
 
   final BeanDescription description;
 
-  private final LinkedList<BeanHolder> holders = new LinkedList<>();
+  private final ThreadLocal<LinkedList<BeanHolder>> holders = ThreadLocal.withInitial(LinkedList::new);
 
 
   Suppliers(BeanDescription description) {
@@ -23,16 +23,17 @@ class Suppliers {
 
 
   Object create(ValueType type) {
+    LinkedList<BeanHolder> pool = holders.get();
     BeanHolder holder;
-    if (holders.isEmpty()) {
+    if (pool.isEmpty()) {
       holder = description.createHolder();
     } else {
-      holder = holders.removeLast();
+      holder = pool.removeLast();
     }
     try {
       return holder.create(type);
     } finally {
-      holders.add(holder);
+      pool.add(holder);
     }
   }
 
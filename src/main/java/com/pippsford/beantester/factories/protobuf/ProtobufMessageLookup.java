@@ -1,9 +1,10 @@
 package com.pippsford.beantester.factories.protobuf;
 
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.protobuf.Message;
 import com.google.protobuf.Message.Builder;
@@ -12,6 +13,7 @@ import com.pippsford.beantester.AssertionException;
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.factories.FactoryLookup;
 import com.pippsford.beantester.factories.FactoryRepository;
+import com.pippsford.beantester.factories.TypeFamily;
 import com.pippsford.beantester.mirror.SerializableLambdas;
 import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction0;
 
@@ -26,7 +28,7 @@ public class ProtobufMessageLookup implements FactoryLookup {
   }
 
 
-  private final Map<Class<?>, ValueFactory> knownFactories = new HashMap<>();
+  private final Map<Class<?>, ValueFactory> knownFactories = new ConcurrentHashMap<>();
 
 
   @Override
@@ -64,4 +66,10 @@ public class ProtobufMessageLookup implements FactoryLookup {
     return Optional.empty();
   }
 
+
+  @Override
+  public Set<TypeFamily> getTypeFamilies() {
+    return Set.of(TypeFamily.OTHER);
+  }
+
 }
@@ -44,6 +44,7 @@ import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.ValueType;
 import com.pippsford.beantester.factories.FactoryLookup;
 import com.pippsford.beantester.factories.FactoryRepository;
+import com.pippsford.beantester.factories.TypeFamily;
 
 
 /**
@@ -200,6 +201,12 @@ public class CollectionFactoryLookup implements FactoryLookup {
   }
 
 
+  @Override
+  public Set<TypeFamily> getTypeFamilies() {
+    return Set.of(TypeFamily.COLLECTION);
+  }
+
+
   @SuppressWarnings("rawtypes")
   private boolean isEnumMap(Type type, Class<?> rawType) {
     if (rawType.equals(EnumMap.class)) {
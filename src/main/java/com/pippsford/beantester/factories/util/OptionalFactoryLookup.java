@@ -12,12 +12,14 @@ import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.Set;
 
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.factories.FactoryLookup;
 import com.pippsford.beantester.factories.FactoryRepository;
 import com.pippsford.beantester.factories.NoSuchFactoryException;
+import com.pippsford.beantester.factories.TypeFamily;
 
 
 /**
@@ -93,6 +95,12 @@ public class OptionalFactoryLookup implements FactoryLookup {
   }
 
 
+  @Override
+  public Set<TypeFamily> getTypeFamilies() {
+    return Set.of(TypeFamily.OPTIONAL);
+  }
+
+
   private boolean isAssignableToOptional(Class<?> clazz) {
     for (Class<?> optionalType : OPTIONAL_TO_ITEM_TYPE_MAP.keySet()) {
       if (optionalType.isAssignableFrom(clazz)) {
@@ -39,6 +39,18 @@ public class BeanBuilder extends AbstractCreatorModel<BeanBuilder> {
       BuilderMethods builderMethods,
       Spec... specs
   ) {
+    this(beanClass, builderMethods, ResolvedSpecs.of(specs));
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param beanClass      the class being built by the builder
+   * @param builderMethods the methods to create the builder and the bean
+   * @param specs          the specifications for the bean
+   */
+  BeanBuilder(Class<?> beanClass, BuilderMethods builderMethods, ResolvedSpecs specs) {
     this.beanClass = beanClass;
     this.builderMethods = builderMethods;
 
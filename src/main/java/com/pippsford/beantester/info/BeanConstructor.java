@@ -39,6 +39,18 @@ public class BeanConstructor extends AbstractCreatorModel<BeanConstructor> {
    * @param specs     the specifications for the bean
    */
   public BeanConstructor(Class<?> beanClass, Specs.BeanConstructor spec, Spec... specs) {
+    this(beanClass, spec, ResolvedSpecs.of(specs));
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param beanClass the class of the bean
+   * @param spec      the specification for the constructor
+   * @param specs     the specifications for the bean
+   */
+  BeanConstructor(Class<?> beanClass, Specs.BeanConstructor spec, ResolvedSpecs specs) {
     spec.validate();
     names = List.copyOf(Objects.requireNonNull(spec.getNames(), "parameterNames"));
     List<Class<?>> types = Objects.requireNonNull(spec.getTypes(), "parameterTypes");
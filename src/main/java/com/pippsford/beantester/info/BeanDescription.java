@@ -1,10 +1,18 @@
 package com.pippsford.beantester.info;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import lombok.Getter;
 
 import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.events.PhaseEvent;
+import com.pippsford.beantester.info.Specs.Spec;
+import com.pippsford.beantester.mirror.AccessorStrategy;
 
 /**
  * Defines an object that provides information about a JavaBean.
@@ -13,12 +21,80 @@ import com.pippsford.beantester.TestContext;
 public class BeanDescription extends AbstractModel<BeanDescription> {
 
   /**
-   * Create BeanInformation for a specified class.
+   * The context and specifications a template was created with. A description depends on the factories available when it is created, so a template is only
+   * re-used in a context with the same factories. Specifications are usually lambdas, so a template is only re-used for the same specification instances.
+   *
+   * @param factories        the factory repository's version
+   * @param specSuffix       the suffix of spec filter classes
+   * @param accessorStrategy the accessor strategy
+   * @param specs            the specifications
    */
-  public static BeanDescription create(Class<?> beanClass, Specs.Spec... specs) {
-    Optional<BeanDescription> lookup = TestContext.get().findBeanDescriptionLookup(beanClass, specs);
-    // If we have a defined lookup, use it. Otherwise, create a new default factory.
-    return lookup.orElseGet(() -> new BeanDescriptionFactory(beanClass, specs, true).create());
+  private record TemplateKey(Object factories, String specSuffix, AccessorStrategy accessorStrategy, List<Spec> specs) {
+
+    static TemplateKey current(Spec[] specs) {
+      TestContext context = TestContext.get();
+      return new TemplateKey(
+          context.getFactories().getVersion(),
+          context.getSpecSuffix(),
+          context.getAccessorStrategy(),
+          Collections.unmodifiableList(Arrays.asList(specs.clone()))
+      );
+    }
+
+  }
+
+
+
+  /** The maximum number of templates held for each class. */
+  private static final int MAX_TEMPLATES = 8;
+
+  /**
+   * The most recently used templates for each class. A class value holds the templates so that a class's templates do not prevent its class loader from being
+   * collected.
+   */
+  private static final ClassValue<Map<TemplateKey, BeanDescription>> TEMPLATES = new ClassValue<>() {
+    @Override
+    protected Map<TemplateKey, BeanDescription> computeValue(Class<?> type) {
+      return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TemplateKey, BeanDescription> eldest) {
+          return size() > MAX_TEMPLATES;
+        }
+      });
+    }
+  };
+
+
+  /**
+   * Create BeanInformation for a specified class. Descriptions created by the default factory are cached for the current factories and the specifications,
+   * so every call returns a new copy which the caller is free to change.
+   */
+  public static BeanDescription create(Class<?> beanClass, Spec... specs) {
+    PhaseEvent event = PhaseEvent.start(PhaseEvent.DESCRIPTION, beanClass);
+    BeanDescription description = null;
+    try {
+      Optional<BeanDescription> lookup = TestContext.get().findBeanDescriptionLookup(beanClass, specs);
+      // If we have a defined lookup, use it. Otherwise, create a new default factory.
+      description = lookup.orElseGet(() -> createFromTemplate(beanClass, specs));
+      return description;
+    } finally {
+      event.finish(description != null ? description.getProperties().size() : 0, description != null);
+    }
+  }
+
+
+  private static BeanDescription createFromTemplate(Class<?> beanClass, Spec[] specs) {
+    TemplateKey key = TemplateKey.current(specs);
+    Map<TemplateKey, BeanDescription> templates = TEMPLATES.get(beanClass);
+    BeanDescription template = templates.get(key);
+    if (template != null) {
+      return new BeanDescription(template);
+    }
+
+    // Each context and set of specifications has its own template, so contexts with different factories do not evict each other's templates.
+    BeanDescription description = new BeanDescriptionFactory(beanClass, specs, true).create();
+    templates.put(key, new BeanDescription(description));
+    return description;
   }
 
 
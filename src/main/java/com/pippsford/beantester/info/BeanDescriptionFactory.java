@@ -4,31 +4,30 @@ package com.pippsford.beantester.info;
 import static com.pippsford.beantester.info.specs.BeanConstructorFactory.beanConstructorIfPossible;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 
 import com.pippsford.beantester.info.Specs.BeanCreator;
 import com.pippsford.beantester.info.Specs.BuilderMethods;
 import com.pippsford.beantester.info.Specs.DescriptionCustomiser;
+import com.pippsford.beantester.info.Specs.FieldAccess;
 import com.pippsford.beantester.info.Specs.MethodFilterSpec;
 import com.pippsford.beantester.info.Specs.NewProperty;
 import com.pippsford.beantester.info.Specs.PropertyCustomiser;
 import com.pippsford.beantester.info.Specs.RemoveProperty;
 import com.pippsford.beantester.info.Specs.Spec;
-import com.pippsford.beantester.info.specs.SpecFilter;
 import com.pippsford.beantester.mirror.SerializableLambdas;
 import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer2;
 import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction0;
 import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction1;
-import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction2;
 
 /**
  * Defines an object that creates BeanInformation objects.
@@ -49,32 +48,6 @@ class BeanDescriptionFactory {
   }
 
 
-  /**
-   * Does an annotation indicate that a parameter is not null? The annotation must be named either "NotNull" or "NonNull" (ignoring case).
-   *
-   * @param a the annotation
-   *
-   * @return true if the annotation indicates that the parameter is not null
-   */
-  private static boolean isNotNull(Annotation a) {
-    String simpleName = a.annotationType().getSimpleName();
-    return simpleName.equalsIgnoreCase("NotNull") || simpleName.equalsIgnoreCase("NonNull");
-  }
-
-
-  /**
-   * Does an annotation indicate that a parameter is nullable? The annotation must be named either "Nullable" and is only relevant if the default is not null.
-   *
-   * @param a the annotation
-   *
-   * @return true if the annotation indicates that the parameter is nullable
-   */
-  private static boolean isNullable(Annotation a) {
-    String simpleName = a.annotationType().getSimpleName();
-    return simpleName.equalsIgnoreCase("Nullable");
-  }
-
-
   /**
    * Remove a prefix from a name. It is assumed the name actually has the prefix.
    *
@@ -102,43 +75,64 @@ class BeanDescriptionFactory {
   /** Properties on the bean. */
   private final TreeMap<String, Property> beanProperties = new TreeMap<>();
 
+  /** Properties of the bean that were generated at compile time, or null if the bean's methods must be examined. */
+  private final Collection<Property> generatedProperties;
+
   /** Are we currently analyzing a builder?. */
   private final boolean onBean;
 
-  /** Specs used in creating the bean and property information. */
-  private final Spec[] specs;
+  /** Specs used in creating the bean and property information, resolved against the bean's class. */
+  private final ResolvedSpecs specs;
 
   /** Creator for the bean. */
   private com.pippsford.beantester.info.BeanCreator<?> creator;
 
 
   BeanDescriptionFactory(Class<?> beanClass, Spec[] specs, boolean onBean) {
+    this(beanClass, specs, onBean, null);
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param beanClass           the bean's class
+   * @param specs               the specifications for the bean
+   * @param onBean              true if describing the bean, false if describing a builder
+   * @param generatedProperties the bean's properties as generated at compile time, or null to find them by reflection
+   */
+  BeanDescriptionFactory(Class<?> beanClass, Spec[] specs, boolean onBean, Collection<Property> generatedProperties) {
+    this(beanClass, ResolvedSpecs.of(specs), onBean, generatedProperties);
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param beanClass the bean's class
+   * @param specs     the specifications for the bean. These are resolved against the bean's class if they have not been already.
+   * @param onBean    true if describing the bean, false if describing a builder
+   */
+  BeanDescriptionFactory(Class<?> beanClass, ResolvedSpecs specs, boolean onBean) {
+    this(beanClass, specs, onBean, null);
+  }
+
+
+  private BeanDescriptionFactory(Class<?> beanClass, ResolvedSpecs specs, boolean onBean, Collection<Property> generatedProperties) {
     if (Modifier.isAbstract(beanClass.getModifiers()) && !beanClass.isInterface()) {
       throw new IllegalArgumentException("Cannot create a bean description for an abstract class: " + beanClass);
     }
 
     this.beanClass = beanClass;
     this.onBean = onBean;
-    Spec[] expanded = expandSpecs(specs);
-
-    SpecFilter filer = SpecFilter.getSpecFilter(beanClass);
-    List<Spec> specIn = new ArrayList<>(List.of(expanded));
-    List<Spec> specOut = filer.filter(specIn);
-    if (specOut == null) {
-      expanded = new Spec[0];
-    } else {
-      expanded = specOut.stream().filter(Objects::nonNull).toArray(Spec[]::new);
-    }
-
-    expanded = expandSpecs(expanded);
-
-    this.specs = expanded;
+    this.specs = specs.forClass(beanClass);
+    this.generatedProperties = generatedProperties;
   }
 
 
   private boolean acceptMethod(Method method, String prefix, boolean isSetter) {
     Class<?> paramType = isSetter ? method.getParameterTypes()[0] : null;
-    for (MethodFilterSpec spec : Specs.specs(MethodFilterSpec.class, specs)) {
+    for (MethodFilterSpec spec : specs.get(MethodFilterSpec.class)) {
       if (!spec.accept(onBean, isSetter, prefix, method.getName(), method.getReturnType(), paramType)) {
         return false;
       }
@@ -148,7 +142,7 @@ class BeanDescriptionFactory {
 
 
   private void applyDescriptionCustomisers(BeanDescription information) {
-    for (DescriptionCustomiser customiser : Specs.specs(DescriptionCustomiser.class, specs)) {
+    for (DescriptionCustomiser customiser : specs.get(DescriptionCustomiser.class)) {
       customiser.accept(information);
     }
   }
@@ -156,7 +150,7 @@ class BeanDescriptionFactory {
 
   private void applyPropertyCustomisers(Model<?> model) {
     // remove props
-    for (RemoveProperty spec : Specs.specs(RemoveProperty.class, specs)) {
+    for (RemoveProperty spec : specs.get(RemoveProperty.class)) {
       ArrayList<String> toRemove = new ArrayList<>();
       for (Property property : model.getProperties()) {
         if (spec.remove(property, onBean)) {
@@ -170,13 +164,13 @@ class BeanDescriptionFactory {
 
     // add props
     boolean isCreator = model instanceof com.pippsford.beantester.info.BeanCreator<?>;
-    for (NewProperty spec : Specs.specs(NewProperty.class, specs)) {
+    for (NewProperty spec : specs.get(NewProperty.class)) {
       Optional<Property> optProperty = spec.get(isCreator);
       optProperty.ifPresent(model::setProperty);
     }
 
     // customise props
-    for (PropertyCustomiser spec : Specs.specs(PropertyCustomiser.class, specs)) {
+    for (PropertyCustomiser spec : specs.get(PropertyCustomiser.class)) {
       for (Property info : model.getProperties()) {
         try {
           spec.accept(info);
@@ -188,6 +182,28 @@ class BeanDescriptionFactory {
   }
 
 
+  /**
+   * Ascertain whether a record component is "not null". Annotations on the component, its accessor method, and its type are considered.
+   *
+   * @param component the record component
+   *
+   * @return true if not-null or non-null annotations are present
+   */
+  boolean componentIsNotNull(RecordComponent component) {
+    // primitive types are never null
+    if (component.getType().isPrimitive()) {
+      return true;
+    }
+
+    return NullnessIndex.isNotNull(
+        defaultIsNotNull(),
+        component.getAnnotations(),
+        component.getAccessor().getAnnotations(),
+        component.getAnnotatedType().getAnnotations()
+    );
+  }
+
+
   /**
    * Create a BeanInformation object.
    *
@@ -227,49 +243,13 @@ class BeanDescriptionFactory {
 
 
   /**
-   * Check if a class or its package has a "not null" annotation.
+   * Check if the class or an enclosing scope makes values "not null" by default. A class, package or module may have a "not null" or JSpecify "null marked"
+   * annotation, and a nearer scope may have a JSpecify "null unmarked" annotation.
    *
-   * @return true if the class has a "not null" annotation
+   * @return true if values are not null by default
    */
   boolean defaultIsNotNull() {
-    for (Annotation a : beanClass.getAnnotations()) {
-      if (isNotNull(a)) {
-        return true;
-      }
-    }
-
-    Package pack = beanClass.getPackage();
-    if (pack != null) {
-      for (Annotation a : pack.getAnnotations()) {
-        if (isNotNull(a)) {
-          return true;
-        }
-      }
-    }
-
-    return false;
-  }
-
-
-  private Spec[] expandSpecs(Spec[] specs) {
-    ArrayList<Spec> specList = new ArrayList<>();
-    for (Spec spec : specs) {
-      if (spec instanceof Specs.ResolvingSpec) {
-        LinkedList<Spec> resolveList = new LinkedList<>();
-        resolveList.add(spec);
-        while (!resolveList.isEmpty()) {
-          Spec current = resolveList.removeFirst();
-          if (current instanceof Specs.ResolvingSpec resolving) {
-            resolveList.addAll(0, resolving.resolve(beanClass));
-          } else {
-            specList.add(current);
-          }
-        }
-      } else {
-        specList.add(spec);
-      }
-    }
-    return specList.toArray(Spec[]::new);
+    return NullnessIndex.defaultIsNotNull(beanClass);
   }
 
 
@@ -288,6 +268,22 @@ class BeanDescriptionFactory {
 
   /** Find the bean's properties. This only finds properties that have getters and setters, not those are in the builder or the constructor. */
   private void findBeanProperties() {
+    // Generated properties were found using the default rules, so they cannot be used if the methods are filtered or fields are accessed directly.
+    if (generatedProperties != null && specs.get(MethodFilterSpec.class).isEmpty() && specs.get(FieldAccess.class).isEmpty()) {
+      for (Property property : generatedProperties) {
+        Property.merge(beanProperties, property);
+      }
+      return;
+    }
+
+    // A record's properties are exactly its components.
+    if (beanClass.isRecord() && specs.get(MethodFilterSpec.class).isEmpty()) {
+      findRecordProperties();
+      return;
+    }
+
+    // Properties hold their methods and bind accessors on first use. Accessors are bound once per declaring class, so inherited methods share the accessors
+    // already bound for other sub-classes.
     Method[] methods = beanClass.getMethods();
 
     for (Method method : methods) {
@@ -315,28 +311,28 @@ class BeanDescriptionFactory {
 
   private void findCreator() {
     // Does the bean have a specific creator?
-    Optional<BeanCreator> optCreator = Specs.firstSpec(BeanCreator.class, specs);
+    Optional<BeanCreator> optCreator = specs.first(BeanCreator.class);
     if (optCreator.isPresent()) {
-      creator = optCreator.get().getCreator(specs);
+      creator = optCreator.get().getCreator(specs.toArray());
       return;
     }
 
     // Does the bean have a maker specifier?
-    Optional<Specs.BeanMaker> optMaker = Specs.firstSpec(Specs.BeanMaker.class, specs);
+    Optional<Specs.BeanMaker> optMaker = specs.first(Specs.BeanMaker.class);
     if (optMaker.isPresent()) {
       creator = new BeanMaker(optMaker.get(), specs);
       return;
     }
 
     // Does the bean have a constructor specifier?
-    Optional<Specs.BeanConstructor> optConstructor = Specs.firstSpec(Specs.BeanConstructor.class, specs);
+    Optional<Specs.BeanConstructor> optConstructor = specs.first(Specs.BeanConstructor.class);
     if (optConstructor.isPresent()) {
       creator = new BeanConstructor(beanClass, optConstructor.get(), specs);
       return;
     }
 
     // Does the bean have a builder specifier?
-    Optional<Specs.BuilderMethods> optBuilder = Specs.firstSpec(Specs.BuilderMethods.class, specs);
+    Optional<Specs.BuilderMethods> optBuilder = specs.first(Specs.BuilderMethods.class);
     if (optBuilder.isPresent()) {
       creator = new BeanBuilder(beanClass, optBuilder.get(), specs);
       return;
@@ -355,6 +351,12 @@ class BeanDescriptionFactory {
       return;
     }
 
+    // Records are created via their canonical constructor
+    if (RecordConstructor.isSupported(beanClass)) {
+      creator = new RecordConstructor(beanClass, this);
+      return;
+    }
+
     // Look for a usable constructor
     optConstructor = findDefaultConstructor();
     if (optConstructor.isPresent()) {
@@ -432,9 +434,15 @@ class BeanDescriptionFactory {
       return;
     }
 
-    Property property = new Property(propertyName)
-        .reader(SerializableLambdas.createLambda(SerializableFunction1.class, method))
-        .setNotNull(returnValueIsNotNull(method));
+    Optional<SerializableFunction1> field = useField(propertyName)
+        ? SerializableLambdas.createFieldAccessor(SerializableFunction1.class, beanClass, method, propertyName)
+        : Optional.empty();
+    Property property = new Property(propertyName).setNotNull(returnValueIsNotNull(method));
+    if (field.isPresent()) {
+      property.reader(field.get());
+    } else {
+      property.setReadMethod(method);
+    }
     Property.merge(beanProperties, property);
   }
 
@@ -460,6 +468,26 @@ class BeanDescriptionFactory {
   }
 
 
+  /** Find the properties of a record from its components. */
+  @SuppressWarnings("unchecked")
+  private void findRecordProperties() {
+    for (RecordComponent component : RecordConstructor.getComponents(beanClass)) {
+      String propertyName = component.getName();
+      Method accessor = component.getAccessor();
+      Optional<SerializableFunction1> field = useField(propertyName)
+          ? SerializableLambdas.createFieldAccessor(SerializableFunction1.class, beanClass, accessor, propertyName)
+          : Optional.empty();
+      Property property = new Property(propertyName).setNotNull(componentIsNotNull(component));
+      if (field.isPresent()) {
+        property.reader(field.get());
+      } else {
+        property.setReadMethod(accessor);
+      }
+      Property.merge(beanProperties, property);
+    }
+  }
+
+
   /** Consider if a method is a setter. */
   @SuppressWarnings("unchecked")
   private void findSetter(Method method) {
@@ -486,10 +514,13 @@ class BeanDescriptionFactory {
     Property property = new Property(propertyName)
         .setNotNull(parameterIsNotNull(method, 0));
 
-    if (returnType.equals(void.class)) {
-      property.setWriter(SerializableLambdas.createLambda(SerializableConsumer2.class, method));
+    Optional<SerializableConsumer2> field = useField(propertyName)
+        ? SerializableLambdas.createFieldAccessor(SerializableConsumer2.class, beanClass, method, propertyName)
+        : Optional.empty();
+    if (field.isPresent()) {
+      property.setWriter(field.get());
     } else {
-      property.setWriter(SerializableLambdas.createLambda(SerializableFunction2.class, method));
+      property.setWriteMethod(method);
     }
 
     Property.merge(beanProperties, property);
@@ -534,23 +565,14 @@ class BeanDescriptionFactory {
       return true;
     }
 
-    boolean defaultIsNotNull = defaultIsNotNull();
-    Annotation[][] annotations = executable.getParameterAnnotations();
-    for (Annotation a : annotations[index]) {
-      if (defaultIsNotNull) {
-        // Must be explicitly nullable
-        if (isNullable(a)) {
-          return false;
-        }
-      } else {
-        // Check if not-null
-        if (isNotNull(a)) {
-          return true;
-        }
-      }
+    // The annotated types omit implicit parameters, such as the outer instance of an inner class's constructor, so must be aligned from the end.
+    Annotation[] typeAnnotations = new Annotation[0];
+    AnnotatedType[] annotatedTypes = executable.getAnnotatedParameterTypes();
+    int typeIndex = index - (executable.getParameterCount() - annotatedTypes.length);
+    if (typeIndex >= 0) {
+      typeAnnotations = annotatedTypes[typeIndex].getAnnotations();
     }
-
-    return defaultIsNotNull;
+    return NullnessIndex.isNotNull(defaultIsNotNull(), executable.getParameterAnnotations()[index], typeAnnotations);
   }
 
 
@@ -567,21 +589,27 @@ class BeanDescriptionFactory {
       return true;
     }
 
-    boolean defaultIsNotNull = defaultIsNotNull();
+    return NullnessIndex.isNotNull(defaultIsNotNull(), method.getAnnotations(), method.getAnnotatedReturnType().getAnnotations());
+  }
 
-    for (Annotation a : method.getAnnotations()) {
-      if (defaultIsNotNull) {
-        if (isNullable(a)) {
-          return false;
-        }
-      } else {
-        if (isNotNull(a)) {
-          return true;
-        }
+
+  /**
+   * Should a property be accessed through its backing field rather than its accessor methods?
+   *
+   * @param propertyName the property's name
+   *
+   * @return true if the backing field should be used, if it exists
+   */
+  private boolean useField(String propertyName) {
+    if (!onBean) {
+      return false;
+    }
+    for (FieldAccess spec : specs.get(FieldAccess.class)) {
+      if (spec.useField(propertyName)) {
+        return true;
       }
     }
-
-    return defaultIsNotNull;
+    return false;
   }
 
 }
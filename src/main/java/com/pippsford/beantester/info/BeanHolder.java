@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -13,6 +14,7 @@ import com.pippsford.beantester.NullBehaviour;
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueFactory;
 import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.events.BeanCreationEvent;
 import com.pippsford.beantester.factories.FactoryRepository;
 import com.pippsford.beantester.factories.bean.BeanFactoryLookup;
 import com.pippsford.beantester.test.Equals;
@@ -38,6 +40,10 @@ public class BeanHolder {
   /** The property values (this may be inconsistent with the bean). */
   private final LinkedHashMap<String, Object> values = new LinkedHashMap<>();
 
+  /** The number of bean constructions avoided by serving reads from the snapshot bean. */
+  @Getter
+  private long avoidedBuilds = 0;
+
   /** The current bean. */
   private Object bean;
 
@@ -46,11 +52,18 @@ public class BeanHolder {
 
   /** Whether to prefer writers to creators. */
   @Getter
-  @Setter
   private boolean preferWriters = TestContext.get().isPreferWriters();
 
   private int revision = -1;
 
+  /** Does the current bean reflect the current property values? Only used when snapshot reads are enabled. */
+  private boolean snapshotCurrent = false;
+
+  /** If true, all reads between changes to the property values are served from a single bean. */
+  @Getter
+  @Setter
+  private boolean snapshotReads = TestContext.get().isSnapshotReads();
+
 
   /**
    * New instance.
@@ -69,6 +82,7 @@ public class BeanHolder {
     this.initialValues.putAll(copy.initialValues);
     this.values.putAll(copy.values);
     this.preferWriters = copy.preferWriters;
+    this.snapshotReads = copy.snapshotReads;
 
     this.bean = null;
     this.creatorData = null;
@@ -90,7 +104,15 @@ public class BeanHolder {
 
     if (bean == null || !creatorData.keys.isEmpty()) {
       try {
-        bean = description.getBeanCreator().apply(creatorData.params);
+        BeanCreator<?> creator = description.getBeanCreator();
+        BeanCreationEvent event = BeanCreationEvent.start(description.getBeanClass(), creator);
+        boolean succeeded = false;
+        try {
+          bean = creator.apply(creatorData.params);
+          succeeded = true;
+        } finally {
+          event.finish(creatorData.params.size(), succeeded);
+        }
       } catch (Throwable e) {
         throw new IllegalStateException("Failed to create bean of type " + description.getBeanClass(), e);
       }
@@ -107,6 +129,8 @@ public class BeanHolder {
         info.write(bean, entry.getValue());
       }
     }
+
+    snapshotCurrent = true;
   }
 
 
@@ -165,6 +189,18 @@ public class BeanHolder {
   }
 
 
+  /**
+   * Get the values that will be used to create the next bean. This is the initial values overlaid with the values that have been set.
+   *
+   * @return a new map of property names to values
+   */
+  public Map<String, Object> getExpectedValues() {
+    TreeMap<String, Object> myValues = new TreeMap<>(initialValues);
+    myValues.putAll(values);
+    return myValues;
+  }
+
+
   /**
    * Get all the non-ignored writable property names.
    *
@@ -292,13 +328,14 @@ public class BeanHolder {
 
 
   /**
-   * Get the bean. Every call to this creates a new instance.
+   * Get the bean. Every call to this creates a new instance. The caller may change the instance, so it is never re-used to read the actual values.
    *
    * @return the bean instance
    */
   public Object newBean() {
     bean = null;
     buildBean();
+    snapshotCurrent = false;
     return bean;
   }
 
@@ -311,7 +348,14 @@ public class BeanHolder {
    * @return the actual value
    */
   public Object readActual(String name) {
-    buildBean();
+    if (snapshotReads && snapshotCurrent && revision == description.getRevision()) {
+      // The bean already reflects the current values. Count it as avoided if reading would have constructed a new bean.
+      if (!creatorData.keys.isEmpty()) {
+        avoidedBuilds++;
+      }
+    } else {
+      buildBean();
+    }
     Property property = description.getProperty(name);
     if (property == null) {
       throw new IllegalArgumentException("Class " + getBeanClass() + " : No property named " + name);
@@ -339,6 +383,7 @@ public class BeanHolder {
   /** Reset all the property values. */
   public BeanHolder reset() {
     bean = null;
+    snapshotCurrent = false;
     values.clear();
     resetInitialValues();
     return this;
@@ -416,6 +461,22 @@ public class BeanHolder {
   }
 
 
+  /**
+   * Set whether to prefer writers to creators when a property can be set by either.
+   *
+   * @param preferWriters true to prefer writers
+   *
+   * @return this
+   */
+  public BeanHolder setPreferWriters(boolean preferWriters) {
+    if (this.preferWriters != preferWriters) {
+      this.preferWriters = preferWriters;
+      snapshotCurrent = false;
+    }
+    return this;
+  }
+
+
   private void setCreatorData() {
     if (description.getRevision() != revision) {
       resetInitialValues();
@@ -470,6 +531,7 @@ public class BeanHolder {
 
     values.remove(name);
     values.put(name, value);
+    snapshotCurrent = false;
 
     return true;
   }
@@ -477,9 +539,7 @@ public class BeanHolder {
 
   @Override
   public String toString() {
-    TreeMap<String, Object> myValues = new TreeMap<>(initialValues);
-    myValues.putAll(values);
-    return "BeanHolder(" + description.getBeanClass() + ", values=" + myValues + ")";
+    return "BeanHolder(" + description.getBeanClass() + ", values=" + getExpectedValues() + ")";
   }
 
 
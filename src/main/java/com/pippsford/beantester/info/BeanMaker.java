@@ -38,6 +38,17 @@ public class BeanMaker extends AbstractCreatorModel<BeanMaker> {
    * @param specs     the specifications for the bean
    */
   public BeanMaker(Specs.BeanMaker spec, Spec... specs) {
+    this(spec, ResolvedSpecs.of(specs));
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param spec  the specification for the maker
+   * @param specs the specifications for the bean
+   */
+  BeanMaker(Specs.BeanMaker spec, ResolvedSpecs specs) {
     spec.validate();
     names = List.copyOf(Objects.requireNonNull(spec.getNames(), "parameterNames"));
     List<Class<?>> types = Objects.requireNonNull(spec.getTypes(), "parameterTypes");
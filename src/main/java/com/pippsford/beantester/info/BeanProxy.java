@@ -1,5 +1,6 @@
 package com.pippsford.beantester.info;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
@@ -7,28 +8,46 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import com.pippsford.beantester.NullBehaviour;
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueType;
 import com.pippsford.beantester.factories.FactoryRepository;
+import com.pippsford.beantester.info.ProxyClassFactory.Slot;
 import com.pippsford.beantester.info.Specs.Spec;
 import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer2;
 
 
 /**
- * Creator for interface beans.
+ * Creator for interface beans. Where possible, the interface is implemented by a generated hidden class which holds the property values in fields. Otherwise,
+ * a {@link Proxy} is used.
  */
 public class BeanProxy extends AbstractCreatorModel<BeanProxy> {
 
+  /**
+   * The generated implementation of the interface for the current properties.
+   *
+   * @param slots       the properties held by the implementation, in the order its constructor takes them
+   * @param constructor the implementation's constructor, if one is possible
+   */
+  private record Implementation(List<Slot> slots, Optional<MethodHandle> constructor) {
+
+  }
+
+
+
   /**
    * Interface invocation handler for the bean.
    */
   class ProxyHandler implements InvocationHandler {
 
+    /** The value of every property. An omitted property has a null value, just as it has in a generated implementation. */
     private final HashMap<String, Object> values = new HashMap<>();
 
 
@@ -164,6 +183,9 @@ public class BeanProxy extends AbstractCreatorModel<BeanProxy> {
 
   private final Map<String, Object> defaultValues = new HashMap<>();
 
+  /** The generated implementation. Created when the first bean is created, and re-created if the properties change. */
+  private Implementation implementation = null;
+
   private final Map<Method, String> readMethods = new HashMap<>();
 
   private final Map<Method, String> writeMethods = new HashMap<>();
@@ -176,6 +198,17 @@ public class BeanProxy extends AbstractCreatorModel<BeanProxy> {
    * @param specs     the specifications for the bean
    */
   public BeanProxy(Class<?> beanClass, Spec... specs) {
+    this(beanClass, ResolvedSpecs.of(specs));
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param beanClass the bean class
+   * @param specs     the specifications for the bean
+   */
+  BeanProxy(Class<?> beanClass, ResolvedSpecs specs) {
     this.beanClass = beanClass;
     FactoryRepository repository = TestContext.get().getFactories();
     for (Property property : new BeanDescriptionFactory(beanClass, specs, true).findAllProperties()) {
@@ -233,16 +266,37 @@ public class BeanProxy extends AbstractCreatorModel<BeanProxy> {
     // Verify all not-null are set to null
     verifyNullValues(values);
 
-    ProxyHandler handler = new ProxyHandler(values);
-
-    // Add missing not-null values
-    for (var e : defaultValues.entrySet()) {
-      if (!values.containsKey(e.getKey())) {
-        handler.values.put(e.getKey(), e.getValue());
+    // Omitted properties are null, unless they are not-null, in which case they have a default.
+    HashMap<String, Object> allValues = new HashMap<>();
+    for (Property property : getProperties()) {
+      allValues.put(property.getName(), null);
+    }
+    allValues.putAll(defaultValues);
+    allValues.putAll(values);
+
+    Implementation current = getImplementation();
+    List<Slot> slots = current.slots();
+    Optional<MethodHandle> optional = current.constructor();
+    if (optional.isPresent()) {
+      Object[] array = new Object[slots.size()];
+      boolean canCreate = true;
+      for (int i = 0; i < array.length; i++) {
+        array[i] = allValues.get(slots.get(i).name());
+        // A primitive field cannot hold a null, but the proxy can hold it until the getter is called.
+        canCreate &= array[i] != null || !slots.get(i).fieldType().isPrimitive();
+      }
+      if (canCreate) {
+        try {
+          return (Object) optional.get().invokeExact(array);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new IllegalStateException("Failed to create implementation of " + beanClass, e);
+        }
       }
     }
 
-    return Proxy.newProxyInstance(beanClass.getClassLoader(), new Class<?>[]{beanClass}, handler);
+    return Proxy.newProxyInstance(beanClass.getClassLoader(), new Class<?>[]{beanClass}, new ProxyHandler(allValues));
   }
 
 
@@ -252,6 +306,41 @@ public class BeanProxy extends AbstractCreatorModel<BeanProxy> {
   }
 
 
+  private synchronized Implementation getImplementation() {
+    if (implementation != null && !isChanged()) {
+      return implementation;
+    }
+
+    // Every property has a field, as its value is part of the bean's equality even if it is only read by a default method.
+    TreeMap<String, Method[]> accessors = new TreeMap<>();
+    for (Property property : getProperties()) {
+      accessors.put(property.getName(), new Method[2]);
+    }
+
+    // Pair up the abstract accessors for each property. Default methods are left for the interface to implement.
+    for (var e : readMethods.entrySet()) {
+      if (Modifier.isAbstract(e.getKey().getModifiers())) {
+        accessors.computeIfAbsent(e.getValue(), k -> new Method[2])[0] = e.getKey();
+      }
+    }
+    for (var e : writeMethods.entrySet()) {
+      if (Modifier.isAbstract(e.getKey().getModifiers())) {
+        accessors.computeIfAbsent(e.getValue(), k -> new Method[2])[1] = e.getKey();
+      }
+    }
+
+    ArrayList<Slot> list = new ArrayList<>(accessors.size());
+    for (var e : accessors.entrySet()) {
+      Property property = getProperty(e.getKey());
+      list.add(new Slot(e.getKey(), e.getValue()[0], e.getValue()[1], property != null && property.isNotNull()));
+    }
+    List<Slot> slots = List.copyOf(list);
+    implementation = new Implementation(slots, ProxyClassFactory.getConstructor(beanClass, slots));
+    clearChanged();
+    return implementation;
+  }
+
+
   private void verifyNoUnknownProperties(Map<String, Object> values) {
     for (var e : values.entrySet()) {
       Property property = getProperty(e.getKey());
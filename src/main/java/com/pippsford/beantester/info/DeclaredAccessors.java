@@ -0,0 +1,58 @@
+package com.pippsford.beantester.info;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.mirror.AccessorStrategy;
+import com.pippsford.beantester.mirror.SerializableLambdas;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableLambda;
+
+/**
+ * Accessors bound to the getters and setters of beans. Each accessor is held against the class that declares its method, so a method inherited by many
+ * sub-classes is bound once and the same accessor is shared by the descriptions of every sub-class.
+ */
+class DeclaredAccessors {
+
+  /**
+   * The key for a bound accessor.
+   *
+   * @param method     the method
+   * @param lambdaType the type of lambda the method is bound to
+   * @param strategy   the strategy used to bind the method
+   */
+  private record Key(Method method, Class<?> lambdaType, AccessorStrategy strategy) {
+
+  }
+
+
+
+  /** The accessors, held against the class that declares the method. */
+  private static final ClassValue<ConcurrentHashMap<Key, SerializableLambda>> ACCESSORS = new ClassValue<>() {
+    @Override
+    protected ConcurrentHashMap<Key, SerializableLambda> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+
+  /**
+   * Get the accessor for a method, binding it if this is the first time the method has been used with this lambda type and the current accessor strategy.
+   *
+   * @param lambdaType the type of the lambda
+   * @param method     the method
+   * @param <X>        the type of the lambda
+   *
+   * @return the accessor
+   */
+  static <X extends SerializableLambda> X get(Class<X> lambdaType, Method method) {
+    Key key = new Key(method, lambdaType, TestContext.get().getAccessorStrategy());
+    return lambdaType.cast(ACCESSORS.get(method.getDeclaringClass()).computeIfAbsent(key, k -> SerializableLambdas.createLambda(lambdaType, method)));
+  }
+
+
+  private DeclaredAccessors() {
+    // utility class
+  }
+
+}
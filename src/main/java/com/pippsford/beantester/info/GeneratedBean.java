@@ -0,0 +1,78 @@
+package com.pippsford.beantester.info;
+
+import java.util.Arrays;
+
+/**
+ * Base class for the hidden classes that implement interface beans. The hidden class holds the property values in fields and implements the interface's
+ * accessors directly. This class is public only so that hidden classes in other packages can extend it.
+ */
+public abstract class GeneratedBean {
+
+  /**
+   * Check that a value for a not-null property is not null.
+   *
+   * @param value    the value
+   * @param property the property's name
+   *
+   * @throws IllegalArgumentException if the value is null
+   */
+  protected static void checkNotNull(Object value, String property) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null value for " + property);
+    }
+  }
+
+
+  /** The number of properties. */
+  private final int size;
+
+
+  /**
+   * New instance.
+   *
+   * @param size the number of properties
+   */
+  protected GeneratedBean(int size) {
+    this.size = size;
+  }
+
+
+  /**
+   * Copy the values of the properties into an array, in the order they were supplied when the bean was created.
+   *
+   * @param values the array to copy into
+   */
+  protected abstract void copyValues(Object[] values);
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o == null || o.getClass() != getClass()) {
+      return false;
+    }
+    return Arrays.equals(values(), ((GeneratedBean) o).values());
+  }
+
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values());
+  }
+
+
+  @Override
+  public String toString() {
+    return "BeanProxy for " + getClass().getInterfaces()[0].getName();
+  }
+
+
+  private Object[] values() {
+    Object[] values = new Object[size];
+    copyValues(values);
+    return values;
+  }
+
+}
@@ -0,0 +1,91 @@
+package com.pippsford.beantester.info;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.pippsford.beantester.info.Specs.Spec;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer2;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction1;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction2;
+
+/**
+ * Base class for the bean description lookups generated by the "beantester-processor" annotation processor. The generated code supplies the bean's getters
+ * and setters as compiled method references, so the bean's methods do not have to be found and converted to lambdas by reflection. The creator and the
+ * specifications are handled exactly as they are for any other bean.
+ *
+ * <p>Generated lookups are registered with the {@link java.util.ServiceLoader} and are consulted after any lookups added to the test context. If a
+ * specification filters the bean's methods, the generated properties cannot be used and the bean is described by reflection instead.</p>
+ */
+public abstract class GeneratedDescriptionLookup implements BeanDescriptionLookup {
+
+  /**
+   * Create a property that is read by a getter.
+   *
+   * @param name    the property's name
+   * @param reader  the getter
+   * @param notNull true if the getter never returns null
+   * @param <T>     the bean type
+   * @param <V>     the property type
+   *
+   * @return the property
+   */
+  protected static <T, V> Property getter(String name, SerializableFunction1<T, V> reader, boolean notNull) {
+    return new Property(name).reader(reader).setNotNull(notNull);
+  }
+
+
+  /**
+   * Create a property that is written by a setter that returns nothing.
+   *
+   * @param name    the property's name
+   * @param writer  the setter
+   * @param notNull true if the setter does not accept null
+   * @param <T>     the bean type
+   * @param <V>     the property type
+   *
+   * @return the property
+   */
+  @SuppressWarnings("unchecked")
+  protected static <T, V> Property setter(String name, SerializableConsumer2<T, V> writer, boolean notNull) {
+    return new Property(name).setWriter((SerializableConsumer2<Object, Object>) writer).setNotNull(notNull);
+  }
+
+
+  /**
+   * Create a property that is written by a setter that returns a value.
+   *
+   * @param name    the property's name
+   * @param writer  the setter
+   * @param notNull true if the setter does not accept null
+   * @param <T>     the bean type
+   * @param <V>     the property type
+   * @param <R>     the setter's return type
+   *
+   * @return the property
+   */
+  @SuppressWarnings("unchecked")
+  protected static <T, V, R> Property setter(String name, SerializableFunction2<T, V, R> writer, boolean notNull) {
+    return new Property(name).setWriter((SerializableFunction2<Object, Object, Object>) writer).setNotNull(notNull);
+  }
+
+
+  @Override
+  public Optional<BeanDescription> getDescription(Class<?> type, Spec... specs) {
+    Collection<Property> properties = getProperties(type);
+    if (properties == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new BeanDescriptionFactory(type, specs, true, properties).create());
+  }
+
+
+  /**
+   * Get the pre-generated properties of a bean. A new set of properties must be returned every time, as the caller will modify them.
+   *
+   * @param type the bean's class
+   *
+   * @return the properties, or null if no properties were generated for the class
+   */
+  protected abstract Collection<Property> getProperties(Class<?> type);
+
+}
@@ -0,0 +1,158 @@
+package com.pippsford.beantester.info;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An index of the nullness defaults of classes, packages and modules. Annotations are classified by their simple names:
+ *
+ * <ul>
+ *   <li>"NotNull" or "NonNull" marks a value as not null. On a class or package it makes not null the default.</li>
+ *   <li>"Nullable" marks a value as nullable.</li>
+ *   <li>"NullMarked" makes not null the default for a class, package or module, as JSpecify specifies.</li>
+ *   <li>"NullUnmarked" cancels the default of an enclosing scope, as JSpecify specifies.</li>
+ * </ul>
+ *
+ * <p>The nearest scope that has a default wins. The scopes are the class, its enclosing classes, its package, and its module. Each annotation type is
+ * classified once, and each scope's default is found once.</p>
+ */
+class NullnessIndex {
+
+  /** The classification of an annotation type. */
+  private enum Kind {
+    NOT_NULL,
+    NULLABLE,
+    NULL_MARKED,
+    NULL_UNMARKED,
+    OTHER
+  }
+
+
+
+  /** The default nullness that a scope specifies. */
+  private enum Scope {
+    /** Values are not null unless marked nullable. */
+    MARKED,
+
+    /** Values are nullable unless marked not null. */
+    UNMARKED,
+
+    /** The scope does not specify a default, so the enclosing scope's default applies. */
+    UNSPECIFIED
+  }
+
+
+
+  private static final ClassValue<Boolean> CLASS_DEFAULTS = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      return findDefault(type);
+    }
+  };
+
+  private static final ClassValue<Kind> KINDS = new ClassValue<>() {
+    @Override
+    protected Kind computeValue(Class<?> type) {
+      String simpleName = type.getSimpleName();
+      if (simpleName.equalsIgnoreCase("NotNull") || simpleName.equalsIgnoreCase("NonNull")) {
+        return Kind.NOT_NULL;
+      }
+      if (simpleName.equalsIgnoreCase("Nullable")) {
+        return Kind.NULLABLE;
+      }
+      if (simpleName.equalsIgnoreCase("NullMarked")) {
+        return Kind.NULL_MARKED;
+      }
+      if (simpleName.equalsIgnoreCase("NullUnmarked")) {
+        return Kind.NULL_UNMARKED;
+      }
+      return Kind.OTHER;
+    }
+  };
+
+  /** Package and module scopes. Class loaders hold their packages and modules, so these are released when the loader is. */
+  private static final Map<AnnotatedElement, Scope> SCOPES = Collections.synchronizedMap(new WeakHashMap<>());
+
+
+  /**
+   * Does a class or one of its enclosing scopes make values not null by default?.
+   *
+   * @param type the class
+   *
+   * @return true if values are not null by default
+   */
+  static boolean defaultIsNotNull(Class<?> type) {
+    return CLASS_DEFAULTS.get(type);
+  }
+
+
+  private static boolean findDefault(Class<?> type) {
+    Scope scope = scopeOf(type);
+    if (scope != Scope.UNSPECIFIED) {
+      return scope == Scope.MARKED;
+    }
+
+    Class<?> enclosing = type.getEnclosingClass();
+    if (enclosing != null) {
+      return CLASS_DEFAULTS.get(enclosing);
+    }
+
+    Package pack = type.getPackage();
+    if (pack != null) {
+      scope = SCOPES.computeIfAbsent(pack, NullnessIndex::scopeOf);
+      if (scope != Scope.UNSPECIFIED) {
+        return scope == Scope.MARKED;
+      }
+    }
+
+    Module module = type.getModule();
+    if (module.isNamed()) {
+      scope = SCOPES.computeIfAbsent(module, NullnessIndex::scopeOf);
+    }
+    return scope == Scope.MARKED;
+  }
+
+
+  /**
+   * Is a value with the given annotations not null?.
+   *
+   * @param defaultIsNotNull the default of the value's scope
+   * @param annotations      the annotations on the value, which may include both declaration and type-use annotations
+   *
+   * @return true if the value is not null
+   */
+  static boolean isNotNull(boolean defaultIsNotNull, Annotation[]... annotations) {
+    Kind override = defaultIsNotNull ? Kind.NULLABLE : Kind.NOT_NULL;
+    for (Annotation[] array : annotations) {
+      for (Annotation a : array) {
+        if (KINDS.get(a.annotationType()) == override) {
+          return !defaultIsNotNull;
+        }
+      }
+    }
+    return defaultIsNotNull;
+  }
+
+
+  private static Scope scopeOf(AnnotatedElement element) {
+    for (Annotation a : element.getAnnotations()) {
+      Kind kind = KINDS.get(a.annotationType());
+      if (kind == Kind.NOT_NULL || kind == Kind.NULL_MARKED) {
+        return Scope.MARKED;
+      }
+      if (kind == Kind.NULL_UNMARKED) {
+        return Scope.UNMARKED;
+      }
+    }
+    return Scope.UNSPECIFIED;
+  }
+
+
+  private NullnessIndex() {
+    // utility class
+  }
+
+}
@@ -74,6 +74,9 @@ public class Property {
   @Getter
   private Object omittedValue;
 
+  /** Getter for this property. If set, the reader function is bound to it when the property is first read. */
+  private Method readMethod;
+
   /** Read function for this property. */
   private SerializableFunction1<?, ?> reader;
 
@@ -84,6 +87,9 @@ public class Property {
   /** Explicit type of this property (null if not set). */
   private Type type;
 
+  /** Setter for this property. If set, the write function is bound to it when the property is first written. */
+  private Method writeMethod;
+
   /** Write function for this property. A writer that returns a value. */
   private SerializableFunction2<Object, Object, Object> writer1;
 
@@ -106,9 +112,11 @@ public class Property {
     this.nullValue = original.nullValue;
     this.omittedBehaviour = original.omittedBehaviour;
     this.omittedValue = original.omittedValue;
+    this.readMethod = original.readMethod;
     this.reader = original.reader;
     this.significant = original.significant;
     this.type = original.type;
+    this.writeMethod = original.writeMethod;
     this.writer1 = original.writer1;
     this.writer2 = original.writer2;
   }
@@ -136,12 +144,20 @@ public class Property {
     }
     this.name = original.name;
 
-    this.reader = coalesce(update.reader, original.reader);
+    if (update.isReadable()) {
+      this.readMethod = update.readMethod;
+      this.reader = update.reader;
+    } else {
+      this.readMethod = original.readMethod;
+      this.reader = original.reader;
+    }
     this.type = coalesce(update.type, original.type);
-    if (update.writer1 != null || update.writer2 != null) {
+    if (update.isWritable()) {
+      this.writeMethod = update.writeMethod;
       this.writer1 = update.writer1;
       this.writer2 = update.writer2;
     } else {
+      this.writeMethod = original.writeMethod;
       this.writer1 = original.writer1;
       this.writer2 = original.writer2;
     }
@@ -170,10 +186,26 @@ public class Property {
    * @return the read method if it exists
    */
   public Optional<Method> getReadMethod() {
+    if (readMethod != null) {
+      return Optional.of(readMethod);
+    }
     return Optional.ofNullable(reader).map(Executables::findGetter);
   }
 
 
+  /**
+   * Get the reader function, binding it to the getter if it is not yet bound.
+   *
+   * @return the reader function, or null if the property cannot be read
+   */
+  private SerializableFunction1<?, ?> getReader() {
+    if (reader == null && readMethod != null) {
+      reader = DeclaredAccessors.get(SerializableFunction1.class, readMethod);
+    }
+    return reader;
+  }
+
+
   /**
    * Get the type of this property. If not set explicitly it will be inferred first from the writer's parameter type if available, then by the reader's return
    * type if that is available.
@@ -192,6 +224,9 @@ public class Property {
    * @return the write method, if it exists
    */
   public Optional<Method> getWriteMethod() {
+    if (writeMethod != null) {
+      return Optional.of(writeMethod);
+    }
     if (writer1 != null) {
       Method m = Executables.findGetter(writer1);
       return Optional.of(m);
@@ -206,10 +241,14 @@ public class Property {
 
   private Type inferType() {
     if (inferredType == null) {
-      if (writer1 != null) {
+      if (writeMethod != null) {
+        inferredType = writeMethod.getGenericParameterTypes()[0];
+      } else if (writer1 != null) {
         inferredType = Executables.findGetter(writer1).getGenericParameterTypes()[0];
       } else if (writer2 != null) {
         inferredType = Executables.findMethod(writer2).getGenericParameterTypes()[0];
+      } else if (readMethod != null) {
+        inferredType = readMethod.getGenericReturnType();
       } else if (reader != null) {
         inferredType = Executables.findGetter(reader).getGenericReturnType();
       }
@@ -224,7 +263,7 @@ public class Property {
    * @return true if the property can be read, false otherwise
    */
   public boolean isReadable() {
-    return reader != null;
+    return reader != null || readMethod != null;
   }
 
 
@@ -239,7 +278,7 @@ public class Property {
 
 
   public boolean isWritable() {
-    return writer1 != null || writer2 != null;
+    return writer1 != null || writer2 != null || writeMethod != null;
   }
 
 
@@ -256,11 +295,13 @@ public class Property {
    * @param bean the bean to read from
    *
    * @return the value of the property
+   *
+   * @throws IllegalStateException if the getter cannot be bound, or fails
    */
   public <T, R> R read(T bean) {
     try {
       @SuppressWarnings("unchecked")
-      SerializableFunction1<T, R> castReader = (SerializableFunction1<T, R>) this.reader;
+      SerializableFunction1<T, R> castReader = (SerializableFunction1<T, R>) getReader();
       return castReader != null ? castReader.exec(bean) : null;
     } catch (Throwable e) {
       throw new IllegalStateException("Failed to read property " + name, e);
@@ -276,6 +317,7 @@ public class Property {
    * @return this
    */
   public <T, R> Property reader(SerializableFunction1<T, R> reader) {
+    this.readMethod = null;
     this.reader = reader;
     inferredType = null;
     return this;
@@ -379,6 +421,22 @@ public class Property {
   }
 
 
+  /**
+   * Set the getter for this property. The getter is only bound to a reader function when the property is first read, so properties which are never read do
+   * not pay for binding.
+   *
+   * @param method the getter
+   *
+   * @return this
+   */
+  Property setReadMethod(Method method) {
+    this.readMethod = method;
+    this.reader = null;
+    inferredType = null;
+    return this;
+  }
+
+
   /**
    * Set the property to be significant for equals and hash-code testing.
    *
@@ -407,6 +465,24 @@ public class Property {
   }
 
 
+  /**
+   * Set the setter for this property. The setter is only bound to a write function when the property is first written, so properties which are never written
+   * do not pay for binding.
+   *
+   * @param method the setter, which may return void, the old value, or the bean
+   *
+   * @return this
+   */
+  Property setWriteMethod(Method method) {
+    this.writeMethod = method;
+    this.writer1 = null;
+    this.writer2 = null;
+    inferredType = null;
+    notifyChanged();
+    return this;
+  }
+
+
   /**
    * Set the writer function for this property. The writer returns void.
    *
@@ -415,6 +491,7 @@ public class Property {
    * @return this
    */
   public Property setWriter(SerializableConsumer2<Object, Object> writer) {
+    this.writeMethod = null;
     this.writer1 = null;
     this.writer2 = writer;
     inferredType = null;
@@ -430,6 +507,7 @@ public class Property {
    * @param writer the new writer function
    */
   public Property setWriter(SerializableFunction2<Object, Object, Object> writer) {
+    this.writeMethod = null;
     this.writer1 = writer;
     this.writer2 = null;
     inferredType = null;
@@ -443,9 +521,19 @@ public class Property {
    *
    * @param bean  the bean to write to
    * @param value the value to write
+   *
+   * @throws IllegalStateException if the setter cannot be bound, or fails
    */
   public void write(Object bean, Object value) {
     try {
+      // Bind the setter inside the try, so a failure to bind is reported in the same way as a failure to read or write.
+      if (writer1 == null && writer2 == null && writeMethod != null) {
+        if (writeMethod.getReturnType().equals(void.class)) {
+          writer2 = DeclaredAccessors.get(SerializableConsumer2.class, writeMethod);
+        } else {
+          writer1 = DeclaredAccessors.get(SerializableFunction2.class, writeMethod);
+        }
+      }
       if (writer1 != null) {
         writer1.exec(bean, value);
       } else if (writer2 != null) {
@@ -0,0 +1,516 @@
+package com.pippsford.beantester.info;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generator of hidden classes that implement interface beans. Each property is held in a field, and the interface's abstract getters and setters are
+ * implemented by reading and writing the fields directly. The generated code contains no branches, so no stack map frames are needed.
+ *
+ * <p>If a class cannot be generated for an interface, for example because it has abstract methods that are not accessors, or because its package cannot be
+ * accessed, then the interface is implemented with a {@link java.lang.reflect.Proxy} instead.</p>
+ */
+class ProxyClassFactory {
+
+  /**
+   * A property of the bean.
+   *
+   * @param name    the property's name
+   * @param reader  the abstract getter, if any
+   * @param writer  the abstract setter, if any
+   * @param notNull true if the setter must reject nulls
+   */
+  record Slot(String name, Method reader, Method writer, boolean notNull) {
+
+    /**
+     * Get the type of the field that holds the property's value. If the getter and setter agree on the type it is used, otherwise the value is held as an
+     * Object.
+     *
+     * @return the field's type
+     */
+    Class<?> fieldType() {
+      Set<Class<?>> types = new HashSet<>();
+      if (reader != null) {
+        types.add(reader.getReturnType());
+      }
+      if (writer != null) {
+        types.add(writer.getParameterTypes()[0]);
+      }
+      return types.size() == 1 ? types.iterator().next() : Object.class;
+    }
+
+
+    String key() {
+      return name + "|" + reader + "|" + writer + "|" + notNull;
+    }
+
+  }
+
+
+
+  /** A class file in the process of being written. */
+  private static class ClassFile {
+
+    /** The code of the method being written. */
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+    /** The constant pool, excluding the leading placeholder. */
+    private final ByteArrayOutputStream constants = new ByteArrayOutputStream();
+
+    /** Index of every entry in the constant pool. */
+    private final Map<String, Integer> constantIndex = new HashMap<>();
+
+    private final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+
+    private int constantCount = 1;
+
+    private int fieldCount = 0;
+
+    private int methodCount = 0;
+
+
+    int classRef(Class<?> type) {
+      return classRef(type.getName().replace('.', '/'));
+    }
+
+
+    int classRef(String internalName) {
+      int name = utf8(internalName);
+      return constant("Class:" + internalName, 7, name, -1);
+    }
+
+
+    private int constant(String key, int tag, int first, int second) {
+      Integer index = constantIndex.get(key);
+      if (index != null) {
+        return index;
+      }
+      constants.write(tag);
+      write(constants, 2, first);
+      if (second >= 0) {
+        write(constants, 2, second);
+      }
+      index = constantCount++;
+      constantIndex.put(key, index);
+      return index;
+    }
+
+
+    void endMethod(int access, String name, String descriptor, int maxLocals) {
+      methodCount++;
+      write(methods, 2, access);
+      write(methods, 2, utf8(name));
+      write(methods, 2, utf8(descriptor));
+      write(methods, 2, 1);
+      write(methods, 2, utf8("Code"));
+      byte[] bytes = code.toByteArray();
+      code.reset();
+      write(methods, 4, 12 + bytes.length);
+      // The stack never holds more than two wide values and a reference.
+      write(methods, 2, 6);
+      write(methods, 2, maxLocals);
+      write(methods, 4, bytes.length);
+      methods.writeBytes(bytes);
+      // No exception table and no attributes.
+      write(methods, 2, 0);
+      write(methods, 2, 0);
+    }
+
+
+    void field(int access, String name, Class<?> type) {
+      fieldCount++;
+      write(fields, 2, access);
+      write(fields, 2, utf8(name));
+      write(fields, 2, utf8(type.descriptorString()));
+      write(fields, 2, 0);
+    }
+
+
+    int fieldRef(String owner, String name, Class<?> type) {
+      int nameAndType = nameAndType(name, type.descriptorString());
+      return constant("Field:" + owner + "." + name, 9, classRef(owner), nameAndType);
+    }
+
+
+    int methodRef(String owner, String name, String descriptor) {
+      int nameAndType = nameAndType(name, descriptor);
+      return constant("Method:" + owner + "." + name + descriptor, 10, classRef(owner), nameAndType);
+    }
+
+
+    private int nameAndType(String name, String descriptor) {
+      return constant("NameAndType:" + name + ":" + descriptor, 12, utf8(name), utf8(descriptor));
+    }
+
+
+    void op(int opcode) {
+      code.write(opcode);
+    }
+
+
+    void op(int opcode, int operand) {
+      code.write(opcode);
+      write(code, 2, operand);
+    }
+
+
+    void pushInt(int value) {
+      if (value <= 5) {
+        // iconst_0 to iconst_5
+        op(0x03 + value);
+      } else if (value <= Byte.MAX_VALUE) {
+        // bipush
+        code.write(0x10);
+        code.write(value);
+      } else {
+        // sipush
+        op(0x11, value);
+      }
+    }
+
+
+    void pushString(String value) {
+      int index = constant("String:" + value, 8, utf8(value), -1);
+      // ldc_w
+      op(0x13, index);
+    }
+
+
+    byte[] toByteArray(int access, String thisClass, String superClass, String anInterface) {
+      int thisIndex = classRef(thisClass);
+      int superIndex = classRef(superClass);
+      int interfaceIndex = classRef(anInterface);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      write(out, 4, 0xCAFEBABE);
+      // Version 61.0 is Java 17
+      write(out, 2, 0);
+      write(out, 2, 61);
+      write(out, 2, constantCount);
+      out.writeBytes(constants.toByteArray());
+      write(out, 2, access);
+      write(out, 2, thisIndex);
+      write(out, 2, superIndex);
+      write(out, 2, 1);
+      write(out, 2, interfaceIndex);
+      write(out, 2, fieldCount);
+      out.writeBytes(fields.toByteArray());
+      write(out, 2, methodCount);
+      out.writeBytes(methods.toByteArray());
+      // No class attributes
+      write(out, 2, 0);
+      return out.toByteArray();
+    }
+
+
+    private int utf8(String value) {
+      String key = "Utf8:" + value;
+      Integer index = constantIndex.get(key);
+      if (index != null) {
+        return index;
+      }
+      constants.write(1);
+      try {
+        new DataOutputStream(constants).writeUTF(value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      index = constantCount++;
+      constantIndex.put(key, index);
+      return index;
+    }
+
+
+    private void write(ByteArrayOutputStream out, int bytes, int value) {
+      for (int i = bytes - 1; i >= 0; i--) {
+        out.write(value >>> (8 * i));
+      }
+    }
+
+  }
+
+
+
+  /** Generated constructors, keyed by interface and then by the layout of the properties. An empty value indicates the class could not be generated. */
+  private static final ClassValue<ConcurrentHashMap<List<String>, Optional<MethodHandle>>> CONSTRUCTORS = new ClassValue<>() {
+    @Override
+    protected ConcurrentHashMap<List<String>, Optional<MethodHandle>> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private static final Logger LOG = System.getLogger(ProxyClassFactory.class.getName());
+
+  private static final String SUPER_CLASS = GeneratedBean.class.getName().replace('.', '/');
+
+
+  private static void addAbstractMethods(Set<String> signatures, Class<?> type) {
+    for (Method method : type.getDeclaredMethods()) {
+      if (Modifier.isAbstract(method.getModifiers())) {
+        signatures.add(signature(method));
+      }
+    }
+    for (Class<?> parent : type.getInterfaces()) {
+      addAbstractMethods(signatures, parent);
+    }
+  }
+
+
+  /**
+   * Convert the value on top of the stack from one type to another. One of the types must be Object or the types must be the same.
+   *
+   * @param file the class file
+   * @param from the current type
+   * @param to   the required type
+   */
+  private static void convert(ClassFile file, Class<?> from, Class<?> to) {
+    if (from.equals(to)) {
+      return;
+    }
+    if (from.isPrimitive() && to.isPrimitive()) {
+      throw new IllegalStateException("Cannot convert " + from + " to " + to);
+    }
+    if (from.isPrimitive()) {
+      Class<?> box = MethodType.methodType(from).wrap().returnType();
+      // invokestatic Box.valueOf
+      file.op(0xb8, file.methodRef(internalName(box), "valueOf", MethodType.methodType(box, from).toMethodDescriptorString()));
+      if (!to.isAssignableFrom(box)) {
+        // checkcast
+        file.op(0xc0, file.classRef(to));
+      }
+    } else if (to.isPrimitive()) {
+      Class<?> box = MethodType.methodType(to).wrap().returnType();
+      file.op(0xc0, file.classRef(box));
+      // invokevirtual Box.xxxValue
+      file.op(0xb6, file.methodRef(internalName(box), to.getName() + "Value", MethodType.methodType(to).toMethodDescriptorString()));
+    } else if (!to.isAssignableFrom(from)) {
+      file.op(0xc0, file.classRef(to));
+    }
+  }
+
+
+  /**
+   * Create a class that implements an interface bean.
+   *
+   * @param beanClass the interface
+   * @param slots     the bean's properties
+   *
+   * @return the class file, or null if the interface has abstract methods that are not accessors
+   */
+  private static byte[] createClass(Class<?> beanClass, List<Slot> slots) {
+    String thisClass = internalName(beanClass) + "$$BeanProxy";
+    ClassFile file = new ClassFile();
+    Set<String> implemented = new HashSet<>();
+
+    // Constructor: store each value from the supplied array in its field
+    file.op(0x2a);
+    file.pushInt(slots.size());
+    file.op(0xb7, file.methodRef(SUPER_CLASS, "<init>", "(I)V"));
+    for (int i = 0; i < slots.size(); i++) {
+      Class<?> type = slots.get(i).fieldType();
+      file.field(0x0002, "p" + i, type);
+      file.op(0x2a);
+      file.op(0x2b);
+      file.pushInt(i);
+      // aaload
+      file.op(0x32);
+      convert(file, Object.class, type);
+      file.op(0xb5, file.fieldRef(thisClass, "p" + i, type));
+    }
+    file.op(0xb1);
+    file.endMethod(0x0001, "<init>", "([Ljava/lang/Object;)V", 2);
+
+    // Copy the values for equals and hashCode
+    for (int i = 0; i < slots.size(); i++) {
+      Class<?> type = slots.get(i).fieldType();
+      file.op(0x2b);
+      file.pushInt(i);
+      file.op(0x2a);
+      file.op(0xb4, file.fieldRef(thisClass, "p" + i, type));
+      convert(file, type, Object.class);
+      // aastore
+      file.op(0x53);
+    }
+    file.op(0xb1);
+    file.endMethod(0x0004, "copyValues", "([Ljava/lang/Object;)V", 2);
+
+    for (int i = 0; i < slots.size(); i++) {
+      Slot slot = slots.get(i);
+      int field = file.fieldRef(thisClass, "p" + i, slot.fieldType());
+      if (slot.reader() != null && implemented.add(signature(slot.reader()))) {
+        writeGetter(file, slot, field);
+      }
+      if (slot.writer() != null && implemented.add(signature(slot.writer()))) {
+        writeSetter(file, beanClass, slot, field);
+      }
+    }
+
+    // Every abstract method must have been implemented, apart from those implemented by GeneratedBean.
+    Set<String> required = new HashSet<>();
+    addAbstractMethods(required, beanClass);
+    required.removeAll(implemented);
+    required.remove("toString()Ljava/lang/String;");
+    required.remove("hashCode()I");
+    required.remove("equals(Ljava/lang/Object;)Z");
+    if (!required.isEmpty()) {
+      LOG.log(Level.DEBUG, () -> "Interface " + beanClass.getName() + " has abstract methods which are not accessors: " + required);
+      return null;
+    }
+
+    // public final super
+    return file.toByteArray(0x0001 | 0x0010 | 0x0020, thisClass, SUPER_CLASS, internalName(beanClass));
+  }
+
+
+  /**
+   * Define a hidden class that implements an interface bean, and get its constructor.
+   *
+   * @param beanClass the interface
+   * @param slots     the bean's properties
+   *
+   * @return the constructor, which takes the values of the properties in slot order, or an empty optional if a class could not be generated
+   */
+  private static Optional<MethodHandle> define(Class<?> beanClass, List<Slot> slots) {
+    try {
+      byte[] bytes = createClass(beanClass, slots);
+      if (bytes == null) {
+        return Optional.empty();
+      }
+      Lookup lookup = MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup()).defineHiddenClass(bytes, true);
+      MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Object[].class));
+      return Optional.of(constructor.asType(MethodType.methodType(Object.class, Object[].class)));
+    } catch (IllegalAccessException | NoSuchMethodException | LinkageError | IllegalStateException e) {
+      LOG.log(Level.DEBUG, "Cannot generate an implementation of " + beanClass.getName() + ", a proxy will be used instead", e);
+      return Optional.empty();
+    }
+  }
+
+
+  /**
+   * Get the constructor of a hidden class that implements an interface bean. The constructor takes the values of the properties as an Object array in slot
+   * order.
+   *
+   * @param beanClass the interface
+   * @param slots     the bean's properties
+   *
+   * @return the constructor, or an empty optional if the interface must be implemented with a proxy
+   */
+  static Optional<MethodHandle> getConstructor(Class<?> beanClass, List<Slot> slots) {
+    List<String> key = new ArrayList<>(slots.size());
+    for (Slot slot : slots) {
+      key.add(slot.key());
+    }
+    return CONSTRUCTORS.get(beanClass).computeIfAbsent(key, k -> define(beanClass, slots));
+  }
+
+
+  private static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+
+  private static void returnValue(ClassFile file, Class<?> type) {
+    if (type == void.class) {
+      file.op(0xb1);
+    } else if (!type.isPrimitive()) {
+      // areturn
+      file.op(0xb0);
+    } else if (type == long.class) {
+      file.op(0xad);
+    } else if (type == float.class) {
+      file.op(0xae);
+    } else if (type == double.class) {
+      file.op(0xaf);
+    } else {
+      // ireturn for int, short, char, byte and boolean
+      file.op(0xac);
+    }
+  }
+
+
+  private static String signature(Method method) {
+    return method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+  }
+
+
+  private static void writeGetter(ClassFile file, Slot slot, int field) {
+    Class<?> type = slot.reader().getReturnType();
+    file.op(0x2a);
+    file.op(0xb4, field);
+    convert(file, slot.fieldType(), type);
+    returnValue(file, type);
+    file.endMethod(0x0001, slot.reader().getName(), MethodType.methodType(type).toMethodDescriptorString(), 1);
+  }
+
+
+  private static void writeSetter(ClassFile file, Class<?> beanClass, Slot slot, int field) {
+    Method method = slot.writer();
+    Class<?> valueType = method.getParameterTypes()[0];
+    Class<?> returnType = method.getReturnType();
+
+    if (slot.notNull() && !valueType.isPrimitive()) {
+      file.op(0x2b);
+      file.pushString(slot.name());
+      file.op(0xb8, file.methodRef(SUPER_CLASS, "checkNotNull", "(Ljava/lang/Object;Ljava/lang/String;)V"));
+    }
+
+    // A setter may return nothing, the old value, or the bean itself. The checks are in the same order as the proxy's.
+    boolean isVoid = returnType.equals(void.class) || returnType.equals(Void.class);
+    boolean returnsOld = !isVoid && returnType.equals(valueType);
+    if (!(isVoid || returnsOld || returnType.equals(beanClass))) {
+      throw new IllegalStateException("Invalid return type for " + method + " in " + beanClass);
+    }
+    if (returnsOld) {
+      file.op(0x2a);
+      file.op(0xb4, field);
+      convert(file, slot.fieldType(), returnType);
+    }
+
+    file.op(0x2a);
+    if (!valueType.isPrimitive()) {
+      file.op(0x2b);
+    } else if (valueType == long.class) {
+      file.op(0x1f);
+    } else if (valueType == float.class) {
+      file.op(0x23);
+    } else if (valueType == double.class) {
+      file.op(0x27);
+    } else {
+      file.op(0x1b);
+    }
+    convert(file, valueType, slot.fieldType());
+    file.op(0xb5, field);
+
+    if (returnType.equals(Void.class)) {
+      // aconst_null
+      file.op(0x01);
+    } else if (returnType.equals(beanClass)) {
+      file.op(0x2a);
+    }
+    returnValue(file, returnType);
+
+    int locals = (valueType == long.class || valueType == double.class) ? 3 : 2;
+    file.endMethod(0x0001, method.getName(), MethodType.methodType(returnType, valueType).toMethodDescriptorString(), locals);
+  }
+
+}
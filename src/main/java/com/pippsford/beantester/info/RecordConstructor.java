@@ -0,0 +1,163 @@
+package com.pippsford.beantester.info;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.pippsford.beantester.AssertionException;
+import com.pippsford.beantester.NullBehaviour;
+
+/** A call to a record's canonical constructor. */
+public class RecordConstructor extends AbstractCreatorModel<RecordConstructor> {
+
+  /**
+   * The metadata of a record class, which is read once per class.
+   *
+   * @param components  the record's components
+   * @param names       the names of the components
+   * @param constructor the canonical constructor, which takes an Object array of the components' values, or null if it cannot be accessed
+   */
+  private record Canonical(List<RecordComponent> components, List<String> names, MethodHandle constructor) {
+
+  }
+
+
+
+  private static final ClassValue<Canonical> CANONICAL = new ClassValue<>() {
+    @Override
+    protected Canonical computeValue(Class<?> type) {
+      return createCanonical(type);
+    }
+  };
+
+  private static final Logger LOG = System.getLogger(RecordConstructor.class.getName());
+
+
+  private static Canonical createCanonical(Class<?> type) {
+    List<RecordComponent> components = List.of(type.getRecordComponents());
+    List<String> names = new ArrayList<>(components.size());
+    Class<?>[] types = new Class<?>[components.size()];
+    for (int i = 0; i < types.length; i++) {
+      names.add(components.get(i).getName());
+      types[i] = components.get(i).getType();
+    }
+
+    MethodHandle constructor = null;
+    try {
+      constructor = MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+          .findConstructor(type, MethodType.methodType(void.class, types))
+          .asSpreader(Object[].class, types.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch (IllegalAccessException | NoSuchMethodException e) {
+      LOG.log(Level.DEBUG, "Cannot access canonical constructor of " + type, e);
+    }
+    return new Canonical(components, List.copyOf(names), constructor);
+  }
+
+
+  /**
+   * Get the components of a record class.
+   *
+   * @param recordClass the record class
+   *
+   * @return the components, in declaration order
+   */
+  static List<RecordComponent> getComponents(Class<?> recordClass) {
+    return CANONICAL.get(recordClass).components();
+  }
+
+
+  /**
+   * Can a record be created through its canonical constructor?.
+   *
+   * @param recordClass the record class
+   *
+   * @return true if the canonical constructor can be accessed
+   */
+  static boolean isSupported(Class<?> recordClass) {
+    return recordClass.isRecord() && CANONICAL.get(recordClass).constructor() != null;
+  }
+
+
+  private final Canonical canonical;
+
+  private final Class<?> recordClass;
+
+
+  /**
+   * Copy constructor.
+   *
+   * @param recordConstructor the record constructor to copy
+   */
+  public RecordConstructor(RecordConstructor recordConstructor) {
+    super(recordConstructor.getProperties());
+    canonical = recordConstructor.canonical;
+    recordClass = recordConstructor.recordClass;
+  }
+
+
+  /**
+   * New instance.
+   *
+   * @param recordClass the record class
+   * @param factory     the factory describing the record, which provides the nullness of the components
+   */
+  RecordConstructor(Class<?> recordClass, BeanDescriptionFactory factory) {
+    if (!isSupported(recordClass)) {
+      throw new IllegalArgumentException("Cannot access canonical constructor of " + recordClass);
+    }
+    this.recordClass = recordClass;
+    canonical = CANONICAL.get(recordClass);
+    for (RecordComponent component : canonical.components()) {
+      setProperty(
+          new Property(component.getName())
+              .setType(component.getGenericType())
+              .setWriter((a, b) -> {
+                // do nothing
+              })
+              .setNotNull(factory.componentIsNotNull(component))
+              .setOmittedBehaviour(NullBehaviour.ERROR)
+      );
+    }
+  }
+
+
+  @Override
+  public Object apply(Map<String, Object> params) {
+    List<String> names = canonical.names();
+    if (isChanged()) {
+      for (String name : names) {
+        if (getProperty(name) == null) {
+          throw new AssertionException("Class " + recordClass + " : Cannot create. Missing required property " + name);
+        }
+      }
+      clearChanged();
+    }
+
+    Object[] args = new Object[names.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = params.get(names.get(i));
+    }
+
+    try {
+      return (Object) canonical.constructor().invokeExact(args);
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionException("Class " + recordClass + " : Failed to create record via canonical constructor", e);
+    }
+  }
+
+
+  @Override
+  public RecordConstructor copy() {
+    return new RecordConstructor(this);
+  }
+
+}
@@ -0,0 +1,176 @@
+package com.pippsford.beantester.info;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.pippsford.beantester.info.Specs.BeanCreator;
+import com.pippsford.beantester.info.Specs.BuilderMethods;
+import com.pippsford.beantester.info.Specs.DescriptionCustomiser;
+import com.pippsford.beantester.info.Specs.FieldAccess;
+import com.pippsford.beantester.info.Specs.MethodFilterSpec;
+import com.pippsford.beantester.info.Specs.NewProperty;
+import com.pippsford.beantester.info.Specs.PropertyCustomiser;
+import com.pippsford.beantester.info.Specs.RemoveProperty;
+import com.pippsford.beantester.info.Specs.ResolvingSpec;
+import com.pippsford.beantester.info.Specs.Spec;
+import com.pippsford.beantester.info.specs.SpecFilter;
+
+/**
+ * The specifications for a bean after they have been resolved against the bean's class. Resolving specs are expanded and the class's spec filter is applied
+ * once. The specs that describing a bean looks up are then held by type, so the description factory and the creators do not search the specs repeatedly.
+ */
+class ResolvedSpecs {
+
+  /** The types of spec which are looked up when describing a bean. Specs of these types are bucketed when the specs are resolved. */
+  private static final List<Class<? extends Spec>> BUCKETED = List.of(
+      BeanCreator.class,
+      Specs.BeanConstructor.class,
+      Specs.BeanMaker.class,
+      BuilderMethods.class,
+      DescriptionCustomiser.class,
+      FieldAccess.class,
+      MethodFilterSpec.class,
+      NewProperty.class,
+      PropertyCustomiser.class,
+      RemoveProperty.class
+  );
+
+
+  private static Spec[] expand(Class<?> beanClass, Spec[] specs) {
+    ArrayList<Spec> specList = new ArrayList<>();
+    for (Spec spec : specs) {
+      if (spec instanceof ResolvingSpec) {
+        LinkedList<Spec> resolveList = new LinkedList<>();
+        resolveList.add(spec);
+        while (!resolveList.isEmpty()) {
+          Spec current = resolveList.removeFirst();
+          if (current instanceof ResolvingSpec resolving) {
+            resolveList.addAll(0, resolving.resolve(beanClass));
+          } else {
+            specList.add(current);
+          }
+        }
+      } else {
+        specList.add(spec);
+      }
+    }
+    return specList.toArray(Spec[]::new);
+  }
+
+
+  /**
+   * Hold specifications which have not yet been resolved against a class. They are resolved when a class is supplied to {@link #forClass(Class)}.
+   *
+   * @param specs the specifications
+   *
+   * @return the unresolved specifications
+   */
+  static ResolvedSpecs of(Spec... specs) {
+    return new ResolvedSpecs(null, specs != null ? specs.clone() : new Spec[0]);
+  }
+
+
+  /**
+   * Resolve specifications against a bean class. Resolving specs are expanded, then the class's spec filter is applied, and then any resolving specs added by
+   * the filter are expanded.
+   *
+   * @param beanClass the bean class
+   * @param specs     the specifications
+   *
+   * @return the resolved specifications
+   */
+  static ResolvedSpecs resolve(Class<?> beanClass, Spec... specs) {
+    Spec[] expanded = expand(beanClass, specs != null ? specs : new Spec[0]);
+
+    SpecFilter filer = SpecFilter.getSpecFilter(beanClass);
+    List<Spec> specIn = new ArrayList<>(List.of(expanded));
+    List<Spec> specOut = filer.filter(specIn);
+    if (specOut == null) {
+      expanded = new Spec[0];
+    } else {
+      expanded = specOut.stream().filter(Objects::nonNull).toArray(Spec[]::new);
+    }
+
+    return new ResolvedSpecs(beanClass, expand(beanClass, expanded));
+  }
+
+
+  /** The class the specs were resolved against, or null if they have not been resolved. */
+  private final Class<?> beanClass;
+
+  /** The specs of each bucketed type. */
+  private final Map<Class<?>, List<? extends Spec>> buckets;
+
+  /** All the specs. */
+  private final Spec[] specs;
+
+
+  private ResolvedSpecs(Class<?> beanClass, Spec[] specs) {
+    this.beanClass = beanClass;
+    this.specs = specs;
+    HashMap<Class<?>, List<? extends Spec>> map = new HashMap<>();
+    if (beanClass != null) {
+      for (Class<? extends Spec> type : BUCKETED) {
+        map.put(type, List.copyOf(Specs.specs(type, specs)));
+      }
+    }
+    buckets = Map.copyOf(map);
+  }
+
+
+  /**
+   * Find the first spec of a given type.
+   *
+   * @param type the type of spec
+   * @param <S>  the type of spec
+   *
+   * @return the first spec of the type, if there is one
+   */
+  <S extends Spec> Optional<S> first(Class<S> type) {
+    List<S> list = get(type);
+    return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+  }
+
+
+  /**
+   * Get the specifications resolved against a class. If these specs were resolved against the class, they are returned as they are.
+   *
+   * @param type the class
+   *
+   * @return the specifications resolved against the class
+   */
+  ResolvedSpecs forClass(Class<?> type) {
+    return type.equals(beanClass) ? this : resolve(type, specs);
+  }
+
+
+  /**
+   * Find all the specs of a given type.
+   *
+   * @param type the type of spec
+   * @param <S>  the type of spec
+   *
+   * @return the specs of the type, in the order they were specified
+   */
+  @SuppressWarnings("unchecked")
+  <S extends Spec> List<S> get(Class<S> type) {
+    List<? extends Spec> bucket = buckets.get(type);
+    return bucket != null ? (List<S>) bucket : Specs.specs(type, specs);
+  }
+
+
+  /**
+   * Get all the specs.
+   *
+   * @return a new array containing the specs
+   */
+  Spec[] toArray() {
+    return specs.clone();
+  }
+
+}
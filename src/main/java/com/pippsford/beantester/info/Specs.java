@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import com.pippsford.beantester.BeanVerifier;
@@ -108,6 +109,20 @@ public class Specs {
 
 
 
+  /** Specify the interaction strength used to combine property values when testing that properties can be written and read. */
+  public interface CombinationStrength extends Spec {
+
+    /**
+     * The interaction strength. Zero means every pair of property values is tested exhaustively.
+     *
+     * @return the strength
+     */
+    int getStrength();
+
+  }
+
+
+
   /**
    * A specification that provides a customiser for the bean's description. The customiser will be called after all other specifications have been applied.
    */
@@ -117,6 +132,25 @@ public class Specs {
 
 
 
+  /**
+   * Specify that properties are read and written through their backing fields rather than by invoking their accessor methods. A property is only accessed
+   * through a field if the field has the property's name and the accessor's exact type. Final fields are only read.
+   */
+  public interface FieldAccess extends Spec {
+
+    /**
+     * Should a property be accessed through its backing field?
+     *
+     * @param propertyName the property's name
+     *
+     * @return true if the field should be used
+     */
+    boolean useField(String propertyName);
+
+  }
+
+
+
   /**
    * Test if a method corresponds to the requirements to be a getter or setter.
    */
@@ -296,6 +330,22 @@ public class Specs {
   }
 
 
+  /**
+   * Specify the interaction strength used to combine property values when testing that properties can be written and read. Zero tests every pair of property
+   * values exhaustively. A positive value uses a covering array of that strength.
+   *
+   * @param strength the interaction strength
+   *
+   * @return the specification
+   */
+  public static CombinationStrength combinationStrength(int strength) {
+    if (strength < 0) {
+      throw new IllegalArgumentException("Combination strength must not be negative: " + strength);
+    }
+    return () -> strength;
+  }
+
+
   /**
    * Specify to construct a bean using the public constructor with the lowest number of arguments for which the parameter names are known.
    *
@@ -306,6 +356,36 @@ public class Specs {
   }
 
 
+  /**
+   * Specify that all properties are read and written through their backing fields, where such fields exist.
+   *
+   * @return the specification
+   */
+  public static FieldAccess fieldAccess() {
+    return propertyName -> true;
+  }
+
+
+  /**
+   * Specify that the named properties are read and written through their backing fields, where such fields exist. A name may be repeated.
+   *
+   * @param names the property names
+   *
+   * @return the specification
+   *
+   * @throws IllegalArgumentException if a name is null
+   */
+  public static FieldAccess fieldAccess(String... names) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] == null) {
+        throw new IllegalArgumentException("Property name at index " + i + " is null in " + Arrays.toString(names));
+      }
+    }
+    Set<String> set = Set.copyOf(Arrays.asList(names));
+    return set::contains;
+  }
+
+
   /**
    * Find all the specs of a given type.
    *
@@ -528,6 +608,16 @@ public class Specs {
   }
 
 
+  /**
+   * Specify that property values are combined pairwise, using a covering array, when testing that properties can be written and read.
+   *
+   * @return the specification
+   */
+  public static CombinationStrength pairwise() {
+    return combinationStrength(2);
+  }
+
+
   /**
    * Create a customiser that sets properties as significant.
    *
@@ -69,39 +69,71 @@ import com.pippsford.beantester.mirror.SerializableLambdas.SerializableLambda;
  */
 public class Executables {
 
-  @SuppressWarnings("unchecked")
-  private static <E extends Executable> E doFindMethod(SerializableLambda lambda) {
-    try {
-      SerializedLambda serializedLambda = getSerializedLambda(lambda);
+  /** The resolved target of a lambda class. */
+  private static final class Resolution {
 
-      String className = serializedLambda.getImplClass().replace('/', '.');
+    /** The executable the lambda invokes. */
+    volatile Executable executable;
 
-      ClassLoader classLoader = getClassLoader();
-      Class<?> clazz = Class.forName(className, false, classLoader);
-      Class<?>[] parameters = MethodType.fromMethodDescriptorString(serializedLambda.getImplMethodSignature(), classLoader).parameterArray();
+    /** The name of the method the lambda invokes. */
+    volatile String name;
 
-      String implMethodName = serializedLambda.getImplMethodName();
+  }
 
-      return "<init>".equals(implMethodName)
-          ? (E) clazz.getDeclaredConstructor(parameters)
-          : (E) clazz.getDeclaredMethod(implMethodName, parameters);
-    } catch (IllegalArgumentException e) {
-      throw e;
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Cannot find method for " + lambda, e);
+
+
+  /**
+   * Resolutions of lambda classes. Every instance of a lambda class invokes the same method, whatever values it captures, so the resolution can be shared. A
+   * class value is weak, concurrent, and lock-free for reads.
+   */
+  private static final ClassValue<Resolution> RESOLUTIONS = new ClassValue<>() {
+    @Override
+    protected Resolution computeValue(Class<?> type) {
+      return new Resolution();
+    }
+  };
+
+
+  @SuppressWarnings("unchecked")
+  private static <E extends Executable> E doFindMethod(SerializableLambda lambda) {
+    if (lambda instanceof MethodAccessor accessor) {
+      return (E) accessor.getMethod();
     }
+
+    Class<?> lambdaClass = lambda.getClass();
+    if (!lambdaClass.isHidden()) {
+      // Not a lambda, so each instance could have a different target.
+      return resolveMethod(lambda);
+    }
+
+    Resolution resolution = RESOLUTIONS.get(lambdaClass);
+    Executable executable = resolution.executable;
+    if (executable == null) {
+      executable = resolveMethod(lambda);
+      resolution.executable = executable;
+    }
+    return (E) executable;
   }
 
 
   private static String doFindMethodName(SerializableLambda lambda) {
-    try {
-      SerializedLambda serializedLambda = getSerializedLambda(lambda);
-      return serializedLambda.getImplMethodName();
-    } catch (IllegalArgumentException e) {
-      throw e;
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Cannot find method for " + lambda, e);
+    if (lambda instanceof MethodAccessor accessor) {
+      return accessor.getMethod().getName();
     }
+
+    Class<?> lambdaClass = lambda.getClass();
+    if (!lambdaClass.isHidden()) {
+      // Not a lambda, so each instance could have a different target.
+      return resolveMethodName(lambda);
+    }
+
+    Resolution resolution = RESOLUTIONS.get(lambdaClass);
+    String name = resolution.name;
+    if (name == null) {
+      name = resolveMethodName(lambda);
+      resolution.name = name;
+    }
+    return name;
   }
 
 
@@ -309,6 +341,42 @@ public class Executables {
   }
 
 
+  @SuppressWarnings("unchecked")
+  private static <E extends Executable> E resolveMethod(SerializableLambda lambda) {
+    try {
+      SerializedLambda serializedLambda = getSerializedLambda(lambda);
+
+      String className = serializedLambda.getImplClass().replace('/', '.');
+
+      ClassLoader classLoader = getClassLoader();
+      Class<?> clazz = Class.forName(className, false, classLoader);
+      Class<?>[] parameters = MethodType.fromMethodDescriptorString(serializedLambda.getImplMethodSignature(), classLoader).parameterArray();
+
+      String implMethodName = serializedLambda.getImplMethodName();
+
+      return "<init>".equals(implMethodName)
+          ? (E) clazz.getDeclaredConstructor(parameters)
+          : (E) clazz.getDeclaredMethod(implMethodName, parameters);
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Cannot find method for " + lambda, e);
+    }
+  }
+
+
+  private static String resolveMethodName(SerializableLambda lambda) {
+    try {
+      SerializedLambda serializedLambda = getSerializedLambda(lambda);
+      return serializedLambda.getImplMethodName();
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Cannot find method for " + lambda, e);
+    }
+  }
+
+
   private Executables() {
 
   }
@@ -0,0 +1,89 @@
+package com.pippsford.beantester.mirror;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A cache of the variable handles for the instance fields of a class and its super-classes. The handles for a class are created together, the first time any
+ * field of the class is requested.
+ */
+class FieldHandles {
+
+  /**
+   * A field and the handle to access it.
+   *
+   * @param field  the field
+   * @param handle the handle
+   */
+  record FieldHandle(Field field, VarHandle handle) {
+
+    /**
+     * Can the field be written?
+     *
+     * @return true if the field is not final
+     */
+    boolean isWritable() {
+      return !Modifier.isFinal(field.getModifiers());
+    }
+
+  }
+
+
+
+  private static final ClassValue<Map<String, FieldHandle>> HANDLES = new ClassValue<>() {
+    @Override
+    protected Map<String, FieldHandle> computeValue(Class<?> type) {
+      return createHandles(type);
+    }
+  };
+
+  private static final Logger LOG = System.getLogger(FieldHandles.class.getName());
+
+
+  private static Map<String, FieldHandle> createHandles(Class<?> type) {
+    HashMap<String, FieldHandle> handles = new HashMap<>();
+    for (Class<?> clazz = type; clazz != null && !clazz.equals(Object.class); clazz = clazz.getSuperclass()) {
+      MethodHandles.Lookup lookup;
+      try {
+        lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+      } catch (IllegalAccessException e) {
+        LOG.log(Level.DEBUG, "Cannot access fields of " + clazz, e);
+        continue;
+      }
+
+      for (Field field : clazz.getDeclaredFields()) {
+        // A field in a sub-class hides a field with the same name in a super-class.
+        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || handles.containsKey(field.getName())) {
+          continue;
+        }
+        try {
+          handles.put(field.getName(), new FieldHandle(field, lookup.unreflectVarHandle(field)));
+        } catch (IllegalAccessException e) {
+          LOG.log(Level.DEBUG, "Cannot access field " + field, e);
+        }
+      }
+    }
+    return Map.copyOf(handles);
+  }
+
+
+  /**
+   * Find the handle for an instance field.
+   *
+   * @param type the class to search, along with its super-classes
+   * @param name the field's name
+   *
+   * @return the field and its handle, if the field exists and can be accessed
+   */
+  static Optional<FieldHandle> find(Class<?> type, String name) {
+    return Optional.ofNullable(HANDLES.get(type).get(name));
+  }
+
+}
@@ -0,0 +1,378 @@
+package com.pippsford.beantester.mirror;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.VarHandle.AccessMode;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer0;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer1;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer2;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer3;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer4;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction0;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction1;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction2;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction3;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction4;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableLambda;
+
+/**
+ * An implementation of the serializable lambda interfaces that invokes a method through a method handle. Unlike a lambda created by the lambda meta-factory,
+ * this does not require a new class for every method. The handle is adapted to an erased type so it can be invoked exactly. An accessor may also read or write
+ * a field in place of invoking a getter or setter.
+ *
+ * <p>A lambda is only created for the method if the accessor is serialized.</p>
+ */
+public abstract class MethodAccessor implements SerializableLambda {
+
+  /** Accessor for a method that takes no arguments and does not return a value. */
+  static final class Consumer0 extends MethodAccessor implements SerializableConsumer0 {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Consumer0(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 0, true);
+    }
+
+
+    @Override
+    public void exec() throws Throwable {
+      handle.invokeExact();
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes one argument and does not return a value. */
+  static final class Consumer1 extends MethodAccessor implements SerializableConsumer1<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Consumer1(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 1, true);
+    }
+
+
+    @Override
+    public void exec(Object t1) throws Throwable {
+      handle.invokeExact(t1);
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes two arguments and does not return a value. */
+  static final class Consumer2 extends MethodAccessor implements SerializableConsumer2<Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Consumer2(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 2, true);
+    }
+
+
+    @Override
+    public void exec(Object t1, Object t2) throws Throwable {
+      handle.invokeExact(t1, t2);
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes three arguments and does not return a value. */
+  static final class Consumer3 extends MethodAccessor implements SerializableConsumer3<Object, Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Consumer3(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 3, true);
+    }
+
+
+    @Override
+    public void exec(Object t1, Object t2, Object t3) throws Throwable {
+      handle.invokeExact(t1, t2, t3);
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes four arguments and does not return a value. */
+  static final class Consumer4 extends MethodAccessor implements SerializableConsumer4<Object, Object, Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Consumer4(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 4, true);
+    }
+
+
+    @Override
+    public void exec(Object t1, Object t2, Object t3, Object t4) throws Throwable {
+      handle.invokeExact(t1, t2, t3, t4);
+    }
+
+  }
+
+
+
+  /** Creator of accessors. */
+  private interface Factory {
+
+    MethodAccessor create(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle);
+
+  }
+
+
+
+  /** Accessor for a method that takes no arguments and returns a value. */
+  static final class Function0 extends MethodAccessor implements SerializableFunction0<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Function0(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 0, false);
+    }
+
+
+    @Override
+    public Object exec() throws Throwable {
+      return handle.invokeExact();
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes one argument and returns a value. */
+  static final class Function1 extends MethodAccessor implements SerializableFunction1<Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Function1(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 1, false);
+    }
+
+
+    @Override
+    public Object exec(Object t1) throws Throwable {
+      return handle.invokeExact(t1);
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes two arguments and returns a value. */
+  static final class Function2 extends MethodAccessor implements SerializableFunction2<Object, Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Function2(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 2, false);
+    }
+
+
+    @Override
+    public Object exec(Object t1, Object t2) throws Throwable {
+      return handle.invokeExact(t1, t2);
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes three arguments and returns a value. */
+  static final class Function3 extends MethodAccessor implements SerializableFunction3<Object, Object, Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Function3(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 3, false);
+    }
+
+
+    @Override
+    public Object exec(Object t1, Object t2, Object t3) throws Throwable {
+      return handle.invokeExact(t1, t2, t3);
+    }
+
+  }
+
+
+
+  /** Accessor for a method that takes four arguments and returns a value. */
+  static final class Function4 extends MethodAccessor implements SerializableFunction4<Object, Object, Object, Object, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+
+    Function4(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+      super(lambdaType, method, original, handle, 4, false);
+    }
+
+
+    @Override
+    public Object exec(Object t1, Object t2, Object t3, Object t4) throws Throwable {
+      return handle.invokeExact(t1, t2, t3, t4);
+    }
+
+  }
+
+
+
+  /** Factories for accessors, keyed by the lambda type they implement. */
+  private static final Map<Class<?>, Factory> FACTORIES = Map.of(
+      SerializableConsumer0.class, Consumer0::new,
+      SerializableConsumer1.class, Consumer1::new,
+      SerializableConsumer2.class, Consumer2::new,
+      SerializableConsumer3.class, Consumer3::new,
+      SerializableConsumer4.class, Consumer4::new,
+      SerializableFunction0.class, Function0::new,
+      SerializableFunction1.class, Function1::new,
+      SerializableFunction2.class, Function2::new,
+      SerializableFunction3.class, Function3::new,
+      SerializableFunction4.class, Function4::new
+  );
+
+  private static final long serialVersionUID = 1L;
+
+
+  /**
+   * Create an accessor for a method.
+   *
+   * @param lambdaType the lambda interface to implement
+   * @param method     the method to invoke
+   * @param <X>        the lambda interface type
+   *
+   * @return the accessor
+   *
+   * @throws IllegalArgumentException if the method cannot be accessed or the lambda type is not supported
+   */
+  static <X extends SerializableLambda> X create(Class<X> lambdaType, Method method) {
+    MethodHandle handle = unreflect(method);
+    return create(lambdaType, method, handle, handle);
+  }
+
+
+  private static <X extends SerializableLambda> X create(Class<X> lambdaType, Method method, MethodHandle original, MethodHandle handle) {
+    Factory factory = FACTORIES.get(lambdaType);
+    if (factory == null) {
+      throw new IllegalArgumentException("Unsupported lambda type: " + lambdaType);
+    }
+    return lambdaType.cast(factory.create(lambdaType, method, original, handle));
+  }
+
+
+  /**
+   * Create an accessor that reads or writes a field in place of invoking a getter or setter. The accessor still reports the getter or setter as its method.
+   *
+   * @param lambdaType the lambda interface to implement. This must be a one argument function to read the field, or a two argument consumer to write it.
+   * @param method     the getter or setter the field replaces
+   * @param field      the handle for the field
+   * @param <X>        the lambda interface type
+   *
+   * @return the accessor
+   *
+   * @throws IllegalArgumentException if the method cannot be accessed or the lambda type is not supported
+   */
+  static <X extends SerializableLambda> X createForField(Class<X> lambdaType, Method method, VarHandle field) {
+    MethodHandle handle;
+    if (lambdaType.equals(SerializableFunction1.class)) {
+      handle = field.toMethodHandle(AccessMode.GET);
+    } else if (lambdaType.equals(SerializableConsumer2.class)) {
+      handle = field.toMethodHandle(AccessMode.SET);
+    } else {
+      throw new IllegalArgumentException("Unsupported lambda type for field access: " + lambdaType);
+    }
+    return create(lambdaType, method, unreflect(method), handle);
+  }
+
+
+  private static MethodHandle unreflect(Method method) {
+    try {
+      return MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Unable to access specified method: " + method, e);
+    }
+  }
+
+
+  /** The method handle adapted to an erased type. */
+  protected final transient MethodHandle handle;
+
+  /** The lambda interface this implements. */
+  private final Class<? extends SerializableLambda> lambdaType;
+
+  /** The method invoked. */
+  private final transient Method method;
+
+  /** The handle for the method before it was adapted. */
+  private final transient MethodHandle original;
+
+
+  /**
+   * New instance.
+   *
+   * @param lambdaType the lambda interface this implements
+   * @param method     the method
+   * @param original   the direct method handle for the method
+   * @param handle     the method handle to invoke, which is either the method's handle or a handle for a field that replaces the method
+   * @param arity      the number of arguments the lambda interface takes
+   * @param isVoid     true if the lambda interface does not return a value
+   */
+  MethodAccessor(Class<? extends SerializableLambda> lambdaType, Method method, MethodHandle original, MethodHandle handle, int arity, boolean isVoid) {
+    if (handle.type().parameterCount() != arity) {
+      throw new IllegalArgumentException("Method " + method + " cannot be invoked as a " + lambdaType.getSimpleName());
+    }
+    this.lambdaType = lambdaType;
+    this.method = method;
+    this.original = original;
+    MethodType erased = MethodType.genericMethodType(arity);
+    this.handle = handle.asType(isVoid ? erased.changeReturnType(void.class) : erased);
+  }
+
+
+  /**
+   * Get the method this accessor invokes.
+   *
+   * @return the method
+   */
+  public Method getMethod() {
+    return method;
+  }
+
+
+  @Override
+  public String toString() {
+    return lambdaType.getSimpleName() + "[" + method + "]";
+  }
+
+
+  /**
+   * Serialize this as a lambda. This is the only time a lambda class is created for the method.
+   *
+   * @return the lambda
+   */
+  protected Object writeReplace() {
+    return SerializableLambdas.createLambda(lambdaType, original);
+  }
+
+}
@@ -8,8 +8,10 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.Optional;
 
 import com.pippsford.beantester.AssertionException;
+import com.pippsford.beantester.TestContext;
 
 /**
  * A collection of functional interfaces that are serializable and can be used to create lambdas from method references.
@@ -122,6 +124,27 @@ public class SerializableLambdas {
   }
 
 
+  /**
+   * Create an accessor that reads or writes a property's backing field in place of invoking its getter or setter. The field must have the same type as the
+   * getter's return value or the setter's parameter. Fields are only written if they are not final.
+   *
+   * @param lambdaType the type of the lambda. This must be a one argument function for a getter, or a two argument consumer for a setter.
+   * @param beanClass  the bean's class, which is searched along with its super-classes for the field
+   * @param method     the getter or setter
+   * @param fieldName  the name of the field
+   * @param <X>        the type of the lambda
+   *
+   * @return the accessor, or an empty optional if no suitable field can be accessed
+   */
+  public static <X extends SerializableLambda> Optional<X> createFieldAccessor(Class<X> lambdaType, Class<?> beanClass, Method method, String fieldName) {
+    boolean isSetter = method.getParameterCount() == 1;
+    Class<?> valueType = isSetter ? method.getParameterTypes()[0] : method.getReturnType();
+    return FieldHandles.find(beanClass, fieldName)
+        .filter(f -> f.field().getType().equals(valueType) && (!isSetter || f.isWritable()))
+        .map(f -> MethodAccessor.createForField(lambdaType, method, f.handle()));
+  }
+
+
   /**
    * Create a lambda from a method reference.
    *
@@ -142,7 +165,7 @@ public class SerializableLambdas {
 
 
   /**
-   * Create a lambda from a method reference.
+   * Create a lambda from a method reference. Depending on the test context's accessor strategy, this either creates a new lambda class or a method accessor.
    *
    * @param lambdaType The type of the lambda
    * @param method     The method
@@ -151,6 +174,9 @@ public class SerializableLambdas {
    * @return The lambda
    */
   public static <X extends SerializableLambda> X createLambda(Class<X> lambdaType, Method method) {
+    if (TestContext.get().getAccessorStrategy() == AccessorStrategy.METHOD_HANDLE) {
+      return MethodAccessor.create(lambdaType, method);
+    }
     try {
       MethodHandle handle = MethodHandles.lookup().unreflect(method);
       return createLambda(lambdaType, handle);
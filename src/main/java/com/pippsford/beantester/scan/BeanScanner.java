@@ -0,0 +1,313 @@
+package com.pippsford.beantester.scan;
+
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_ABSTRACT;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_ANNOTATION;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_BRIDGE;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_ENUM;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_INTERFACE;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_MODULE;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_PUBLIC;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_STATIC;
+import static com.pippsford.beantester.scan.ClassFileReader.ACC_SYNTHETIC;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.pippsford.beantester.BeanVerifier;
+import com.pippsford.beantester.info.Specs.Spec;
+import com.pippsford.beantester.scan.ClassFileReader.ClassSummary;
+import com.pippsford.beantester.scan.ClassFileReader.MethodSummary;
+
+/**
+ * Scan directories and jars for classes that look like beans. The class files are read directly, so no classes are loaded and no static initialisers are run
+ * during the scan.
+ *
+ * <p>A class is a candidate if it is public, is not nested inside an instance, declares a public accessor, and either is an interface (so a proxy can be
+ * created), is a record, has a static "builder" method whose return type has a "build" method that returns the bean, or has a public constructor whose
+ * parameter names are known. These mirror the default creators found by the bean description factory. The description factory also requires that a value
+ * factory exists for every constructor parameter, which cannot be checked without loading classes, so some candidates may still fail verification.</p>
+ */
+public class BeanScanner {
+
+  private static final Logger LOG = System.getLogger(BeanScanner.class.getName());
+
+  /** Files larger than this are memory mapped rather than read into the heap. */
+  private static final long MAP_THRESHOLD = 64 * 1024;
+
+
+  private static boolean isAccessor(MethodSummary method) {
+    if (!method.is(ACC_PUBLIC) || method.is(ACC_STATIC) || method.is(ACC_SYNTHETIC) || method.is(ACC_BRIDGE)) {
+      return false;
+    }
+    String name = method.name();
+    return method.descriptor().startsWith("()")
+        && !method.descriptor().endsWith(")V")
+        && !name.startsWith("<")
+        && !name.equals("hashCode")
+        && !name.equals("toString")
+        && !name.equals("clone");
+  }
+
+
+  private static ByteBuffer read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path)) {
+      long size = channel.size();
+      if (size > MAP_THRESHOLD) {
+        return channel.map(MapMode.READ_ONLY, 0, size);
+      }
+      return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+  }
+
+
+  /** The classes found so far, keyed by internal name. */
+  private final Map<String, ClassSummary> classes = new ConcurrentHashMap<>();
+
+  /** The internal name prefix of the packages being scanned. */
+  private final String prefix;
+
+
+  /**
+   * New instance that scans all packages.
+   */
+  public BeanScanner() {
+    this("");
+  }
+
+
+  /**
+   * New instance that scans the specified package and its sub-packages.
+   *
+   * @param packageName the package name
+   */
+  public BeanScanner(String packageName) {
+    prefix = packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/";
+  }
+
+
+  private void accept(String name, ByteBuffer contents) {
+    try {
+      ClassSummary summary = ClassFileReader.read(contents);
+      classes.put(summary.name(), summary);
+    } catch (IllegalArgumentException e) {
+      LOG.log(Level.DEBUG, "Cannot read class file " + name, e);
+    }
+  }
+
+
+  /**
+   * Scan every directory and jar on the class path.
+   *
+   * @return this
+   */
+  public BeanScanner addClassPath() {
+    for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      if (!entry.isEmpty()) {
+        Path path = Path.of(entry);
+        if (Files.exists(path)) {
+          addRoot(path);
+        }
+      }
+    }
+    return this;
+  }
+
+
+  private void addDirectory(Path root) throws IOException {
+    Path start = root.resolve(prefix);
+    if (!Files.isDirectory(start)) {
+      return;
+    }
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(start)) {
+      files = stream.filter(p -> p.toString().endsWith(".class") && Files.isRegularFile(p)).collect(Collectors.toList());
+    }
+    files.parallelStream().forEach(path -> {
+      try {
+        accept(path.toString(), read(path));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+
+  private void addJar(Path jar) throws IOException {
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      List<? extends ZipEntry> entries = zip.stream()
+          .filter(e -> !e.isDirectory() && e.getName().startsWith(prefix) && e.getName().endsWith(".class") && !e.getName().startsWith("META-INF/"))
+          .collect(Collectors.toList());
+      entries.parallelStream().forEach(entry -> {
+        try (InputStream in = zip.getInputStream(entry)) {
+          accept(jar + "!" + entry.getName(), ByteBuffer.wrap(in.readAllBytes()));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+
+
+  /**
+   * Scan a directory or jar file.
+   *
+   * @param root the directory or jar file
+   *
+   * @return this
+   */
+  public BeanScanner addRoot(Path root) {
+    try {
+      if (Files.isDirectory(root)) {
+        addDirectory(root);
+      } else {
+        addJar(root);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to scan " + root, e);
+    }
+    return this;
+  }
+
+
+  /**
+   * Get the binary names of the classes found so far that appear to be verifiable beans.
+   *
+   * @return the names of the candidate classes, in sorted order
+   */
+  public List<String> getCandidates() {
+    List<String> candidates = classes.values().parallelStream()
+        .filter(this::isCandidate)
+        .map(ClassSummary::binaryName)
+        .sorted()
+        .collect(Collectors.toList());
+    return Collections.unmodifiableList(candidates);
+  }
+
+
+  private boolean hasBuilder(ClassSummary summary) {
+    String built = "L" + summary.name() + ";";
+    for (MethodSummary method : summary.methods()) {
+      if (
+          method.name().equals("builder")
+              && method.is(ACC_PUBLIC)
+              && method.is(ACC_STATIC)
+              && method.descriptor().startsWith("()L")
+      ) {
+        String builderName = method.descriptor().substring(3, method.descriptor().length() - 1);
+        ClassSummary builder = classes.get(builderName);
+        if (builder == null) {
+          // The builder is not in a scanned location, so we cannot tell.
+          return false;
+        }
+        for (MethodSummary build : builder.methods()) {
+          if (
+              build.name().equals("build")
+                  && build.is(ACC_PUBLIC)
+                  && !build.is(ACC_STATIC)
+                  && !build.is(ACC_ABSTRACT)
+                  && build.descriptor().equals("()" + built)
+          ) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+
+  private boolean hasConstructor(ClassSummary summary) {
+    for (MethodSummary method : summary.methods()) {
+      if (method.name().equals("<init>") && method.is(ACC_PUBLIC) && (method.descriptor().equals("()V") || method.parameterNames())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  private boolean isCandidate(ClassSummary summary) {
+    if (
+        !summary.is(ACC_PUBLIC)
+            || summary.is(ACC_SYNTHETIC)
+            || summary.is(ACC_ANNOTATION)
+            || summary.is(ACC_ENUM)
+            || summary.is(ACC_MODULE)
+            || summary.local()
+            || summary.name().endsWith("package-info")
+    ) {
+      return false;
+    }
+
+    // A nested class must be static, as we cannot create the enclosing instance.
+    if (summary.nested() && !summary.is(ACC_STATIC) && !summary.is(ACC_INTERFACE)) {
+      return false;
+    }
+
+    if (summary.methods().stream().noneMatch(BeanScanner::isAccessor)) {
+      return false;
+    }
+
+    // Records are created through their canonical constructor, whose parameters are named by the record's components.
+    if (summary.is(ACC_INTERFACE) || summary.record()) {
+      return true;
+    }
+    if (summary.is(ACC_ABSTRACT)) {
+      return false;
+    }
+    return hasBuilder(summary) || hasConstructor(summary);
+  }
+
+
+  /**
+   * Load the candidate classes without initialising them.
+   *
+   * @param loader the class loader to load the classes with
+   *
+   * @return the candidate classes
+   */
+  public List<Class<?>> loadCandidates(ClassLoader loader) {
+    List<String> names = getCandidates();
+    ArrayList<Class<?>> candidates = new ArrayList<>(names.size());
+    for (String name : names) {
+      try {
+        candidates.add(Class.forName(name, false, loader));
+      } catch (ClassNotFoundException | LinkageError e) {
+        LOG.log(Level.DEBUG, "Cannot load candidate class " + name, e);
+      }
+    }
+    return candidates;
+  }
+
+
+  /**
+   * Verify all the candidate classes in parallel.
+   *
+   * @param loader the class loader to load the classes with
+   * @param specs  specifications applied to every class
+   *
+   * @see BeanVerifier#verifyAll(java.util.Collection, Spec...)
+   */
+  public void verify(ClassLoader loader, Spec... specs) {
+    BeanVerifier.verifyAll(loadCandidates(loader), specs);
+  }
+
+}
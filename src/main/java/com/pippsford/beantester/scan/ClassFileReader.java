@@ -0,0 +1,289 @@
+package com.pippsford.beantester.scan;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal reader of class files. It extracts just enough information to decide whether a class might be a bean, without loading the class.
+ */
+class ClassFileReader {
+
+  /**
+   * Summary of a class file.
+   *
+   * @param name    the class's internal name (e.g. "java/lang/String")
+   * @param access  the class's access flags. For a nested class, these are the flags from the inner classes attribute.
+   * @param nested  true if this is a nested class
+   * @param local   true if this is an anonymous or local class
+   * @param record  true if this is a record, whose canonical constructor's parameters are named by its components
+   * @param methods the methods declared by the class
+   */
+  record ClassSummary(String name, int access, boolean nested, boolean local, boolean record, List<MethodSummary> methods) {
+
+    /**
+     * Get the binary name of the class, as used by {@link Class#forName(String)}.
+     *
+     * @return the binary name
+     */
+    String binaryName() {
+      return name.replace('/', '.');
+    }
+
+
+    boolean is(int flag) {
+      return (access & flag) != 0;
+    }
+
+  }
+
+
+
+  /**
+   * Summary of a method in a class file.
+   *
+   * @param name           the method's name
+   * @param descriptor     the method's descriptor
+   * @param access         the method's access flags
+   * @param parameterNames true if the method's parameter names were recorded
+   */
+  record MethodSummary(String name, String descriptor, int access, boolean parameterNames) {
+
+    boolean is(int flag) {
+      return (access & flag) != 0;
+    }
+
+  }
+
+
+
+  static final int ACC_ABSTRACT = 0x0400;
+
+  static final int ACC_ANNOTATION = 0x2000;
+
+  static final int ACC_BRIDGE = 0x0040;
+
+  static final int ACC_ENUM = 0x4000;
+
+  static final int ACC_INTERFACE = 0x0200;
+
+  static final int ACC_MODULE = 0x8000;
+
+  static final int ACC_PUBLIC = 0x0001;
+
+  static final int ACC_STATIC = 0x0008;
+
+  static final int ACC_SYNTHETIC = 0x1000;
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+
+  /**
+   * Decode a "modified UTF-8" string from a class file.
+   *
+   * @param buffer the buffer positioned at the start of the string
+   * @param length the length of the encoded string in bytes
+   *
+   * @return the string
+   */
+  private static String decode(ByteBuffer buffer, int length) {
+    char[] chars = new char[length];
+    int count = 0;
+    int end = buffer.position() + length;
+    while (buffer.position() < end) {
+      int b = buffer.get() & 0xff;
+      if (b < 0x80) {
+        chars[count++] = (char) b;
+      } else if ((b & 0xe0) == 0xc0) {
+        chars[count++] = (char) (((b & 0x1f) << 6) | (buffer.get() & 0x3f));
+      } else {
+        int b2 = buffer.get() & 0x3f;
+        int b3 = buffer.get() & 0x3f;
+        chars[count++] = (char) (((b & 0x0f) << 12) | (b2 << 6) | b3);
+      }
+    }
+    return new String(chars, 0, count);
+  }
+
+
+  /**
+   * Read a class file.
+   *
+   * @param buffer the class file's contents
+   *
+   * @return the summary of the class
+   *
+   * @throws IllegalArgumentException if the buffer does not contain a valid class file
+   */
+  static ClassSummary read(ByteBuffer buffer) {
+    try {
+      return new ClassFileReader(buffer).read();
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+      throw new IllegalArgumentException("Invalid class file", e);
+    }
+  }
+
+
+  private final ByteBuffer buffer;
+
+  /** The constant pool. Only UTF-8 and class entries are retained. */
+  private Object[] constants;
+
+
+  private ClassFileReader(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+
+  private String className(int index) {
+    return utf8((Integer) constants[index]);
+  }
+
+
+  private ClassSummary read() {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Invalid class file: bad magic number");
+    }
+    // skip minor and major versions
+    skip(4);
+    readConstants();
+
+    int access = u2();
+    String name = className(u2());
+    // skip super class
+    skip(2);
+    // skip interfaces
+    skip(2 * u2());
+
+    // skip fields
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      skip(6);
+      skipAttributes();
+    }
+
+    count = u2();
+    List<MethodSummary> methods = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      methods.add(readMethod());
+    }
+
+    // Nested classes have their real access flags in the inner classes attribute.
+    boolean nested = false;
+    boolean local = false;
+    boolean record = false;
+    count = u2();
+    for (int i = 0; i < count; i++) {
+      String attribute = utf8(u2());
+      int length = buffer.getInt();
+      record |= "Record".equals(attribute);
+      if (!"InnerClasses".equals(attribute)) {
+        skip(length);
+        continue;
+      }
+      int classes = u2();
+      for (int j = 0; j < classes; j++) {
+        int inner = u2();
+        int outer = u2();
+        int innerName = u2();
+        int innerAccess = u2();
+        if (inner != 0 && name.equals(className(inner))) {
+          access = innerAccess;
+          nested = true;
+          local = outer == 0 || innerName == 0;
+        }
+      }
+    }
+
+    return new ClassSummary(name, access, nested, local, record, List.copyOf(methods));
+  }
+
+
+  private void readConstants() {
+    int count = u2();
+    constants = new Object[count];
+    for (int i = 1; i < count; i++) {
+      int tag = buffer.get();
+      switch (tag) {
+        case 1:
+          // UTF-8
+          constants[i] = decode(buffer, u2());
+          break;
+        case 7:
+          // Class: store the index of its name
+          constants[i] = u2();
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Field reference
+        case 10: // Method reference
+        case 11: // Interface method reference
+        case 12: // Name and type
+        case 17: // Dynamic
+        case 18: // Invoke dynamic
+          skip(4);
+          break;
+        case 5: // Long
+        case 6: // Double
+          skip(8);
+          // These take two slots
+          i++;
+          break;
+        case 8: // String
+        case 16: // Method type
+        case 19: // Module
+        case 20: // Package
+          skip(2);
+          break;
+        case 15:
+          // Method handle
+          skip(3);
+          break;
+        default:
+          throw new IllegalArgumentException("Invalid class file: unknown constant tag " + tag);
+      }
+    }
+  }
+
+
+  private MethodSummary readMethod() {
+    int access = u2();
+    String name = utf8(u2());
+    String descriptor = utf8(u2());
+    boolean parameterNames = false;
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      String attribute = utf8(u2());
+      int length = buffer.getInt();
+      parameterNames |= "MethodParameters".equals(attribute);
+      skip(length);
+    }
+    return new MethodSummary(name, descriptor, access, parameterNames);
+  }
+
+
+  private void skip(int length) {
+    buffer.position(buffer.position() + length);
+  }
+
+
+  private void skipAttributes() {
+    int count = u2();
+    for (int i = 0; i < count; i++) {
+      skip(2);
+      skip(buffer.getInt());
+    }
+  }
+
+
+  private int u2() {
+    return buffer.getShort() & 0xffff;
+  }
+
+
+  private String utf8(int index) {
+    return (String) constants[index];
+  }
+
+}
@@ -0,0 +1,276 @@
+package com.pippsford.beantester.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generator of t-wise covering arrays using the IPOG (In-Parameter-Order-General) strategy. Every combination of values for every set of {@code t} factors
+ * appears in at least one row of the generated array.
+ *
+ * <p>Rows may contain {@link #DONT_CARE} where any value of the factor may be used.</p>
+ */
+class CoveringArray {
+
+  /** Marker for a position in a row where any value can be used. */
+  static final int DONT_CARE = -1;
+
+
+  /**
+   * Advance a combination of {@code r} indices to the next combination in lexicographic order.
+   *
+   * @param combo the combination to advance
+   * @param n     the number of indices to choose from
+   *
+   * @return false if there are no more combinations
+   */
+  private static boolean nextCombination(int[] combo, int n) {
+    int r = combo.length;
+    int i = r - 1;
+    while (i >= 0 && combo[i] == n - r + i) {
+      i--;
+    }
+    if (i < 0) {
+      return false;
+    }
+    combo[i]++;
+    for (int j = i + 1; j < r; j++) {
+      combo[j] = combo[j - 1] + 1;
+    }
+    return true;
+  }
+
+
+  /**
+   * Advance a tuple of values to the next tuple, with the last position changing fastest.
+   *
+   * @param tuple   the values
+   * @param factors the factors the values are for
+   * @param levels  the number of levels for every factor
+   *
+   * @return false if there are no more tuples
+   */
+  private static boolean nextTuple(int[] tuple, int[] factors, int[] levels) {
+    for (int i = tuple.length - 1; i >= 0; i--) {
+      tuple[i]++;
+      if (tuple[i] < levels[factors[i]]) {
+        return true;
+      }
+      tuple[i] = 0;
+    }
+    return false;
+  }
+
+
+  /** The factors in every interaction being tracked. The last factor is always the factor being added. */
+  private final List<int[]> interactions = new ArrayList<>();
+
+  /** The number of levels for each factor. */
+  private final int[] levels;
+
+  /** The rows of the covering array. */
+  private final List<int[]> rows = new ArrayList<>();
+
+  /** The strength of the array. */
+  private final int strength;
+
+  /** For each interaction, the value tuples which are not yet covered. */
+  private final List<boolean[]> uncovered = new ArrayList<>();
+
+
+  /**
+   * New instance.
+   *
+   * @param levels   the number of levels for each factor. Every factor must have at least one level.
+   * @param strength the strength of the array (2 for pairwise)
+   */
+  CoveringArray(int[] levels, int strength) {
+    if (strength < 1) {
+      throw new IllegalArgumentException("Strength must be positive, not " + strength);
+    }
+    for (int level : levels) {
+      if (level < 1) {
+        throw new IllegalArgumentException("Every factor must have at least one level: " + Arrays.toString(levels));
+      }
+    }
+    this.levels = levels.clone();
+    this.strength = Math.min(strength, levels.length);
+  }
+
+
+  /**
+   * Generate the covering array.
+   *
+   * @return the rows of the array
+   */
+  List<int[]> generate() {
+    rows.clear();
+    int factorCount = levels.length;
+    if (factorCount == 0) {
+      return List.of();
+    }
+
+    // Start with every combination of the first "t" factors.
+    int[] first = new int[strength];
+    for (int i = 0; i < strength; i++) {
+      first[i] = i;
+    }
+    int[] tuple = new int[strength];
+    do {
+      int[] row = new int[factorCount];
+      Arrays.fill(row, DONT_CARE);
+      System.arraycopy(tuple, 0, row, 0, strength);
+      rows.add(row);
+    } while (nextTuple(tuple, first, levels));
+
+    // Now add the remaining factors one at a time.
+    startFactor(strength);
+    for (int factor = strength; factor < factorCount; factor++) {
+      growHorizontally(factor);
+      growVertically(factor);
+    }
+    return rows;
+  }
+
+
+  /**
+   * Extend every existing row with a value for the new factor, choosing the value which covers the most uncovered tuples.
+   *
+   * @param factor the factor being added
+   */
+  private void growHorizontally(int factor) {
+    for (int[] row : rows) {
+      int best = 0;
+      int bestCount = -1;
+      for (int value = 0; value < levels[factor]; value++) {
+        row[factor] = value;
+        int count = 0;
+        for (int c = 0; c < interactions.size(); c++) {
+          int index = tupleIndex(interactions.get(c), row);
+          if (index >= 0 && uncovered.get(c)[index]) {
+            count++;
+          }
+        }
+        if (count > bestCount) {
+          best = value;
+          bestCount = count;
+        }
+      }
+
+      row[factor] = best;
+      for (int c = 0; c < interactions.size(); c++) {
+        int index = tupleIndex(interactions.get(c), row);
+        if (index >= 0) {
+          uncovered.get(c)[index] = false;
+        }
+      }
+    }
+  }
+
+
+  /**
+   * Cover the tuples that remain uncovered after horizontal growth, by filling in "don't care" positions or by adding new rows.
+   *
+   * @param factor the factor being added
+   */
+  private void growVertically(int factor) {
+    for (int c = 0; c < interactions.size(); c++) {
+      int[] factors = interactions.get(c);
+      boolean[] missing = uncovered.get(c);
+      int[] tuple = new int[factors.length];
+      int index = 0;
+      do {
+        if (missing[index]) {
+          placeTuple(factors, tuple);
+          missing[index] = false;
+        }
+        index++;
+      } while (nextTuple(tuple, factors, levels));
+    }
+
+    // Start tracking the next factor.
+    interactions.clear();
+    uncovered.clear();
+    startFactor(factor + 1);
+  }
+
+
+  /**
+   * Place a tuple in an existing row where it fits, or in a new row if it does not fit anywhere.
+   *
+   * @param factors the factors
+   * @param tuple   the values for the factors
+   */
+  private void placeTuple(int[] factors, int[] tuple) {
+    for (int[] row : rows) {
+      boolean fits = true;
+      for (int i = 0; fits && i < factors.length; i++) {
+        int current = row[factors[i]];
+        fits = current == DONT_CARE || current == tuple[i];
+      }
+      if (fits) {
+        for (int i = 0; i < factors.length; i++) {
+          row[factors[i]] = tuple[i];
+        }
+        return;
+      }
+    }
+
+    int[] row = new int[levels.length];
+    Arrays.fill(row, DONT_CARE);
+    for (int i = 0; i < factors.length; i++) {
+      row[factors[i]] = tuple[i];
+    }
+    rows.add(row);
+  }
+
+
+  /**
+   * Set up the tracking of the interactions between a new factor and every set of {@code t-1} of the previous factors.
+   *
+   * @param factor the new factor
+   */
+  private void startFactor(int factor) {
+    if (factor >= levels.length) {
+      return;
+    }
+    int[] combo = new int[strength - 1];
+    for (int i = 0; i < combo.length; i++) {
+      combo[i] = i;
+    }
+    do {
+      int[] factors = Arrays.copyOf(combo, strength);
+      factors[strength - 1] = factor;
+      int size = 1;
+      for (int f : factors) {
+        size *= levels[f];
+      }
+      boolean[] missing = new boolean[size];
+      Arrays.fill(missing, true);
+      interactions.add(factors);
+      uncovered.add(missing);
+    } while (nextCombination(combo, factor));
+  }
+
+
+  /**
+   * Get the index of the tuple a row has for a set of factors.
+   *
+   * @param factors the factors
+   * @param row     the row
+   *
+   * @return the index, or -1 if the row does not have a value for all the factors
+   */
+  private int tupleIndex(int[] factors, int[] row) {
+    int index = 0;
+    for (int f : factors) {
+      int value = row[f];
+      if (value == DONT_CARE) {
+        return -1;
+      }
+      index = index * levels[f] + value;
+    }
+    return index;
+  }
+
+}
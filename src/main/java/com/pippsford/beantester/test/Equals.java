@@ -10,6 +10,7 @@ import com.pippsford.beantester.AssertionException;
 import com.pippsford.beantester.NullBehaviour;
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.events.PhaseEvent;
 import com.pippsford.beantester.info.BeanHolder;
 import com.pippsford.beantester.info.Property;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -17,6 +18,53 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 /** Test the {@code equals()} and {@code hashCode()} methods of a bean. */
 public class Equals {
 
+  /**
+   * The values used to build a bean. Values are compared by identity, as their own {@code equals()} and {@code hashCode()} methods may be broken or under
+   * test, and beans built from equal but distinct values must remain independent.
+   */
+  private static final class ValuesKey {
+
+    private final int hash;
+
+    private final String[] names;
+
+    private final Object[] values;
+
+
+    ValuesKey(Map<String, Object> expected) {
+      names = expected.keySet().toArray(String[]::new);
+      values = expected.values().toArray();
+      int h = Arrays.hashCode(names);
+      for (Object value : values) {
+        h = 31 * h + System.identityHashCode(value);
+      }
+      hash = h;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof ValuesKey other) || hash != other.hash || !Arrays.equals(names, other.names)) {
+        return false;
+      }
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != other.values[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+  }
+
+
+
   private static final Object NOT_EQUAL_TO_ANYTHING = new Object() {
     @Override
     public String toString() {
@@ -78,6 +126,9 @@ public class Equals {
   }
 
 
+  /** Beans built while testing all the properties, keyed by the identities of the values used to build them. */
+  private final HashMap<ValuesKey, Object> beanCache = new HashMap<>();
+
   private final BeanHolder holder;
 
   private final String[] propertyNames;
@@ -146,9 +197,28 @@ public class Equals {
   }
 
 
+  /**
+   * Get a bean built from the holder's current values. If a bean has already been built from the very same value instances, it is re-used.
+   *
+   * @param source the holder
+   *
+   * @return the bean
+   */
+  private Object getBean(BeanHolder source) {
+    return beanCache.computeIfAbsent(new ValuesKey(source.getExpectedValues()), k -> source.newBean());
+  }
+
+
   public void test() {
-    testAllProperties();
-    testRandom();
+    PhaseEvent event = PhaseEvent.start(PhaseEvent.EQUALS, holder.getBeanClass());
+    boolean succeeded = false;
+    try {
+      testAllProperties();
+      testRandom();
+      succeeded = true;
+    } finally {
+      event.finish(propertyNames.length, succeeded);
+    }
   }
 
 
@@ -158,28 +228,37 @@ public class Equals {
     holder.reset();
     holder.setAllProperties(ValueType.RANDOM);
 
-    // Loop over each property
-    for (String name : propertyNames) {
-      boolean isSignificant = holder.isSignificant(name);
-
-      // Loop over the property values for this property
-      for (Object value1 : values.get(name)) {
-        BeanHolder copy = holder.copy();
-        copy.setProperty(name, value1);
-        Object beanBefore = copy.newBean();
-
-        // Verify the basic equality contract
-        verifyBaseEquality(beanBefore, copy.newBean());
-
-        // Loop over the property values for this property and verify that changing it affects equality as required.
-        for (Object value2 : values.get(name)) {
-          BeanHolder copy2 = copy.copy();
-          boolean didChange = copy2.setProperty(name, value2);
-          Object beanAfter = copy2.newBean();
-
-          doTest(isSignificant, didChange, beanBefore, beanAfter, name, value1, value2);
+    // Many of the beans have identical values, so they are only built once.
+    beanCache.clear();
+    try {
+      // Loop over each property
+      for (String name : propertyNames) {
+        boolean isSignificant = holder.isSignificant(name);
+
+        // Loop over the property values for this property
+        for (Object value1 : values.get(name)) {
+          BeanHolder copy = holder.copy();
+          copy.setProperty(name, value1);
+          Object beanBefore = getBean(copy);
+
+          // Verify the basic equality contract. This requires a separately built bean.
+          Object otherBean = copy.newBean();
+          verifyBaseEquality(beanBefore, otherBean);
+
+          // Loop over the property values for this property and verify that changing it affects equality as required.
+          for (Object value2 : values.get(name)) {
+            BeanHolder copy2 = copy.copy();
+            boolean didChange = copy2.setProperty(name, value2);
+
+            // If nothing changed, compare with the separately built bean rather than the same instance.
+            Object beanAfter = didChange ? getBean(copy2) : otherBean;
+
+            doTest(isSignificant, didChange, beanBefore, beanAfter, name, value1, value2);
+          }
         }
       }
+    } finally {
+      beanCache.clear();
     }
   }
 
@@ -191,7 +270,9 @@ public class Equals {
 
 
   private void testRandom() {
-    for (int i = 0; i < TestContext.get().getRuns(); i++) {
+    TestContext context = TestContext.get();
+    long startTime = System.nanoTime();
+    for (int i = 0; context.hasMoreRuns(i, startTime); i++) {
       for (String propertyName : propertyNames) {
         holder.setAllProperties(ValueType.RANDOM);
         Object bean1 = holder.newBean();
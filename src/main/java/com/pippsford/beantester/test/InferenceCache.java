@@ -0,0 +1,472 @@
+package com.pippsford.beantester.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.pippsford.beantester.NullBehaviour;
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.ValueFactory;
+import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.factories.FactoryRepository;
+import com.pippsford.beantester.info.BeanDescription;
+import com.pippsford.beantester.info.Model;
+import com.pippsford.beantester.info.Property;
+import com.pippsford.beantester.mirror.Executables;
+
+/**
+ * An on-disk cache of the inferred null and omitted behaviour of a bean's properties.
+ *
+ * <p>Each entry is keyed by a hash of the bean's class files, the class files of its properties' types, the factories that create its property values, and
+ * the bean description before inference. The description reflects the specifications that were applied to the bean, so a change to the classes, the
+ * factories, or the specifications creates a new key. Every entry is a separate file which is written to a temporary file and then moved into place, so
+ * parallel test workers can share the same directory without locking.</p>
+ *
+ * <p>Entries are plain properties files, so reading an entry never runs code from the cache directory. Only values which are null, strings, boxed
+ * primitives, enum constants, or empty lists, sets, or maps are cached. If a value is anything else, the behaviour is simply inferred again next time. Only the
+ * class and message of an exception thrown when a property is set to null are cached, as the exception is only used to explain a failure.</p>
+ */
+class InferenceCache {
+
+  /** An exception recorded by an earlier run. It only describes the original exception, so it has no stack trace. */
+  static final class CachedException extends RuntimeException {
+
+    /** The original exception's class and message. */
+    private final String description;
+
+
+    CachedException(String description) {
+      super(description + " (recorded in the inference cache)", null, false, false);
+      this.description = description;
+    }
+
+  }
+
+
+
+
+  private static final Logger LOG = System.getLogger(InferenceCache.class.getName());
+
+  /** Marker for a null value. */
+  private static final String NULL = "n";
+
+  /** Version of the cache format. Changing this invalidates all existing entries. */
+  private static final String VERSION = "beantester-inference-3";
+
+
+  /**
+   * Decode a value written by {@link #encode(Object)}.
+   *
+   * @param text   the encoded value
+   * @param loader the class loader for enumerations
+   *
+   * @return the value
+   *
+   * @throws IllegalArgumentException if the text is not a valid encoding
+   */
+  private static Object decode(String text, ClassLoader loader) {
+    if (text.equals(NULL)) {
+      return null;
+    }
+    if (text.length() < 2 || text.charAt(1) != ':') {
+      throw new IllegalArgumentException("Invalid value: " + text);
+    }
+    String body = text.substring(2);
+    switch (text.charAt(0)) {
+      case 'B':
+        return Byte.valueOf(body);
+      case 'D':
+        return Double.valueOf(body);
+      case 'F':
+        return Float.valueOf(body);
+      case 'I':
+        return Integer.valueOf(body);
+      case 'J':
+        return Long.valueOf(body);
+      case 'S':
+        return Short.valueOf(body);
+      case 'Z':
+        return Boolean.valueOf(body);
+      case 'C':
+        if (body.length() != 1) {
+          throw new IllegalArgumentException("Invalid character: " + text);
+        }
+        return body.charAt(0);
+      case 's':
+        return body;
+      case 'e':
+        return decodeEnum(body, loader);
+      case 'l':
+        return List.of();
+      case 'm':
+        return Map.of();
+      case 't':
+        return Set.of();
+      case 'x':
+        return new CachedException(body);
+      default:
+        throw new IllegalArgumentException("Invalid value: " + text);
+    }
+  }
+
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object decodeEnum(String body, ClassLoader loader) {
+    int hash = body.indexOf('#');
+    if (hash < 0) {
+      throw new IllegalArgumentException("Invalid enumeration: " + body);
+    }
+    Class<?> type;
+    try {
+      // Do not initialise the class until it is known to be an enumeration
+      type = Class.forName(body.substring(0, hash), false, loader);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalArgumentException("Unknown enumeration: " + body, e);
+    }
+    if (!type.isEnum()) {
+      throw new IllegalArgumentException("Not an enumeration: " + body);
+    }
+    return Enum.valueOf((Class) type, body.substring(hash + 1));
+  }
+
+
+  private static void digestClass(MessageDigest digest, Class<?> clazz) throws IOException {
+    String name = clazz.getName();
+    String resource = name.substring(name.lastIndexOf('.') + 1) + ".class";
+    try (InputStream in = clazz.getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new NoSuchFileException(name);
+      }
+      digest.update(name.getBytes(StandardCharsets.UTF_8));
+      digest.update(in.readAllBytes());
+    }
+  }
+
+
+  /**
+   * Digest what the values of a model's properties depend on: the class files of the properties' types, and the factories which create the values.
+   *
+   * @param digest    the digest to update
+   * @param beanClass the bean's class
+   * @param model     the model
+   */
+  private static void digestDependencies(MessageDigest digest, Class<?> beanClass, Model<?> model) {
+    FactoryRepository repository = TestContext.get().getFactories();
+    StringBuilder buffer = new StringBuilder();
+    for (String name : new TreeSet<>(model.getPropertyNames())) {
+      Type type = model.getProperty(name).getType();
+      Class<?> rawType = Executables.getRawType(type);
+      if (rawType.getClassLoader() != null && !rawType.isArray()) {
+        try {
+          digestClass(digest, rawType);
+        } catch (IOException e) {
+          // Generated classes have no class file, so only the name is known.
+          buffer.append(rawType.getName()).append('\n');
+        }
+      }
+
+      buffer.append(name).append('|');
+      try {
+        Optional<ValueFactory> override = repository.tryGetOverride(beanClass, name, type);
+        ValueFactory factory = override.isPresent() ? override.get() : repository.tryGetFactory(type).orElse(null);
+        if (factory == null) {
+          buffer.append("none");
+        } else {
+          buffer.append(override.isPresent() ? "override|" : "type|")
+              .append(factory.getClass().getName()).append('|')
+              .append(factory.getType().getTypeName());
+
+          // The primary value of a simple type is cheap to create and shows whether a replacement factory creates different values.
+          if (rawType.isPrimitive() || rawType.isEnum() || rawType == String.class || Number.class.isAssignableFrom(rawType)
+              || rawType == Boolean.class || rawType == Character.class) {
+            buffer.append('|').append(factory.create(ValueType.PRIMARY));
+          }
+        }
+      } catch (RuntimeException e) {
+        buffer.append("error|").append(e.getClass().getName());
+      }
+      buffer.append('\n');
+    }
+    digest.update(buffer.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+
+  private static void digestModel(MessageDigest digest, String type, Model<?> model) {
+    StringBuilder buffer = new StringBuilder();
+    for (String name : new TreeSet<>(model.getPropertyNames())) {
+      Property property = model.getProperty(name);
+      buffer.append(type).append(':').append(name)
+          .append('|').append(property.getType().getTypeName())
+          .append('|').append(property.isIgnored())
+          .append('|').append(property.isNotNull())
+          .append('|').append(property.isReadable())
+          .append('|').append(property.isWritable())
+          .append('|').append(property.getNullBehaviour())
+          .append('|').append(property.getOmittedBehaviour())
+          .append('\n');
+    }
+    digest.update(buffer.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+
+  /**
+   * Encode a value as plain text.
+   *
+   * @param value the value
+   *
+   * @return the encoded value, or null if the value cannot be encoded
+   */
+  private static String encode(Object value) {
+    if (value == null) {
+      return NULL;
+    }
+    if (value instanceof CachedException cached) {
+      return "x:" + cached.description;
+    }
+    if (value instanceof Throwable thrown) {
+      return "x:" + thrown;
+    }
+    if (value instanceof String string) {
+      return "s:" + string;
+    }
+    if (value instanceof Enum<?> constant) {
+      return "e:" + constant.getDeclaringClass().getName() + "#" + constant.name();
+    }
+    if (value instanceof Collection<?> collection && collection.isEmpty()) {
+      // Lists and sets are equal to any other empty list or set
+      if (value instanceof List<?>) {
+        return "l:";
+      }
+      return value instanceof Set<?> ? "t:" : null;
+    }
+    if (value instanceof Map<?, ?> map && map.isEmpty()) {
+      return "m:";
+    }
+    String code = switch (value.getClass().getName()) {
+      case "java.lang.Boolean" -> "Z:";
+      case "java.lang.Byte" -> "B:";
+      case "java.lang.Character" -> "C:";
+      case "java.lang.Double" -> "D:";
+      case "java.lang.Float" -> "F:";
+      case "java.lang.Integer" -> "I:";
+      case "java.lang.Long" -> "J:";
+      case "java.lang.Short" -> "S:";
+      default -> null;
+    };
+    return code != null ? code + value : null;
+  }
+
+
+  private static String key(Model<?> model, String name) {
+    return (model instanceof BeanDescription ? "Bean:" : "Creator:") + name;
+  }
+
+
+  /** The bean description. */
+  private final BeanDescription description;
+
+  /** The file that holds the entry for the bean description, or null if the bean cannot be cached. */
+  private final Path file;
+
+
+  /**
+   * New instance. This must be created before any behaviour is inferred, as the key depends on the description's current state.
+   *
+   * @param directory   the cache directory
+   * @param description the bean description
+   */
+  InferenceCache(Path directory, BeanDescription description) {
+    this.description = description;
+    file = createFile(directory);
+  }
+
+
+  private Path createFile(Path directory) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required by the Java specification", e);
+    }
+    digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+
+    // Digest the bean's class, its super-classes, and its nested classes (which may include its builder).
+    try {
+      Class<?> beanClass = description.getBeanClass();
+      for (Class<?> nested : beanClass.getDeclaredClasses()) {
+        digestClass(digest, nested);
+      }
+      Class<?> clazz = beanClass;
+      while (clazz != null && clazz.getClassLoader() != null) {
+        digestClass(digest, clazz);
+        clazz = clazz.getSuperclass();
+      }
+    } catch (IOException e) {
+      // Generated and hidden classes do not have class files, so they are not cached.
+      LOG.log(Level.DEBUG, "Cannot read class file for " + description.getBeanClass(), e);
+      return null;
+    }
+
+    digest.update(description.getBeanCreator().getClass().getName().getBytes(StandardCharsets.UTF_8));
+    digestModel(digest, "Creator", description.getBeanCreator());
+    digestModel(digest, "Bean", description);
+    digestDependencies(digest, description.getBeanClass(), description.getBeanCreator());
+    digestDependencies(digest, description.getBeanClass(), description);
+    return directory.resolve(HexFormat.of().formatHex(digest.digest()) + ".properties");
+  }
+
+
+  /**
+   * Load the cached behaviour into the bean description.
+   *
+   * @return true if the behaviour was loaded, false if it must be inferred
+   */
+  boolean load() {
+    if (file == null || !Files.isReadable(file)) {
+      return false;
+    }
+
+    Properties entries = new Properties();
+    try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      entries.load(in);
+    } catch (IOException | IllegalArgumentException e) {
+      // A missing or corrupt entry just means we have to infer the behaviour again.
+      LOG.log(Level.DEBUG, "Cannot read inference cache entry " + file, e);
+      return false;
+    }
+
+    // Check every entry matches a property before changing anything.
+    HashMap<Property, Object[]> updates = new HashMap<>();
+    ClassLoader loader = description.getBeanClass().getClassLoader();
+    try {
+      for (Property property : description.getBeanCreator().getProperties()) {
+        updates.put(property, read(entries, key(description.getBeanCreator(), property.getName()), loader));
+      }
+      for (Property property : description.getProperties()) {
+        updates.put(property, read(entries, key(description, property.getName()), loader));
+      }
+    } catch (IllegalArgumentException e) {
+      LOG.log(Level.DEBUG, "Invalid inference cache entry " + file, e);
+      return false;
+    }
+
+    for (Entry<Property, Object[]> entry : updates.entrySet()) {
+      Object[] values = entry.getValue();
+      entry.getKey()
+          .setNullBehaviour((NullBehaviour) values[0])
+          .setNullValue(values[1])
+          .setOmittedBehaviour((NullBehaviour) values[2])
+          .setOmittedValue(values[3]);
+    }
+    return true;
+  }
+
+
+  private boolean put(Properties entries, Model<?> model) {
+    for (Property property : model.getProperties()) {
+      String key = key(model, property.getName());
+      String nullValue = encode(property.getNullValue());
+      String omittedValue = encode(property.getOmittedValue());
+      if (nullValue == null || omittedValue == null) {
+        return false;
+      }
+      entries.setProperty(key + ".null", property.getNullBehaviour() != null ? property.getNullBehaviour().name() : "");
+      entries.setProperty(key + ".nullValue", nullValue);
+      entries.setProperty(key + ".omitted", property.getOmittedBehaviour() != null ? property.getOmittedBehaviour().name() : "");
+      entries.setProperty(key + ".omittedValue", omittedValue);
+    }
+    return true;
+  }
+
+
+  /**
+   * Read the behaviour of one property.
+   *
+   * @param entries the cache entry
+   * @param key     the property's key
+   * @param loader  the class loader for enumerations
+   *
+   * @return the null behaviour, null value, omitted behaviour, and omitted value
+   *
+   * @throws IllegalArgumentException if the entry does not hold valid behaviour for the property
+   */
+  private Object[] read(Properties entries, String key, ClassLoader loader) {
+    String nullBehaviour = entries.getProperty(key + ".null");
+    String nullValue = entries.getProperty(key + ".nullValue");
+    String omittedBehaviour = entries.getProperty(key + ".omitted");
+    String omittedValue = entries.getProperty(key + ".omittedValue");
+    if (nullBehaviour == null || nullValue == null || omittedBehaviour == null || omittedValue == null) {
+      throw new IllegalArgumentException("No entry for " + key);
+    }
+    return new Object[]{
+        nullBehaviour.isEmpty() ? null : NullBehaviour.valueOf(nullBehaviour),
+        decode(nullValue, loader),
+        omittedBehaviour.isEmpty() ? null : NullBehaviour.valueOf(omittedBehaviour),
+        decode(omittedValue, loader)
+    };
+  }
+
+
+  /**
+   * Store the inferred behaviour of the bean description. If the behaviour cannot be stored, it is simply not cached.
+   */
+  void store() {
+    if (file == null) {
+      return;
+    }
+
+    Properties entries = new Properties();
+    if (!put(entries, description.getBeanCreator()) || !put(entries, description)) {
+      LOG.log(Level.DEBUG, "Inferred behaviour of " + description.getBeanClass() + " has values which cannot be cached");
+      return;
+    }
+
+    Path temp = null;
+    try {
+      Files.createDirectories(file.getParent());
+      temp = Files.createTempFile(file.getParent(), "entry", ".tmp");
+      try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        entries.store(out, VERSION);
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      temp = null;
+    } catch (IOException e) {
+      LOG.log(Level.DEBUG, "Cannot write inference cache entry " + file, e);
+    } finally {
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException e) {
+          LOG.log(Level.DEBUG, "Cannot delete temporary file " + temp, e);
+        }
+      }
+    }
+  }
+
+}
@@ -1,10 +1,13 @@
 package com.pippsford.beantester.test;
 
+import java.nio.file.Path;
 import java.util.Set;
 
 import com.pippsford.beantester.AssertionException;
 import com.pippsford.beantester.NullBehaviour;
+import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.events.PhaseEvent;
 import com.pippsford.beantester.info.BeanDescription;
 import com.pippsford.beantester.info.BeanHolder;
 import com.pippsford.beantester.info.Model;
@@ -50,6 +53,33 @@ public class NullRules {
   }
 
 
+  /**
+   * Infer the null and omitted behaviour of a bean's properties. If the test context has an inference cache directory, behaviour inferred in a previous run is
+   * re-used when neither the bean's class nor its description have changed.
+   *
+   * @param original the bean description
+   */
+  public static void infer(BeanDescription original) {
+    PhaseEvent event = PhaseEvent.start(PhaseEvent.NULL_INFERENCE, original.getBeanClass());
+    boolean succeeded = false;
+    try {
+      Path directory = TestContext.get().getInferenceCache();
+      InferenceCache cache = directory != null ? new InferenceCache(directory, original) : null;
+      if (cache == null || !cache.load()) {
+        inferNullBehaviour(original);
+        inferOmittedBehaviour(original);
+
+        if (cache != null) {
+          cache.store();
+        }
+      }
+      succeeded = true;
+    } finally {
+      event.finish(original.getProperties().size(), succeeded);
+    }
+  }
+
+
   /**
    * Infer the null behaviour of a bean's writable properties.
    *
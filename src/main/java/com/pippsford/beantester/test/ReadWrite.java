@@ -1,6 +1,7 @@
 package com.pippsford.beantester.test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -9,6 +10,7 @@ import java.util.random.RandomGenerator;
 
 import com.pippsford.beantester.TestContext;
 import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.events.PhaseEvent;
 import com.pippsford.beantester.info.BeanHolder;
 
 /** Test that all the properties can be written and read correctly. */
@@ -16,6 +18,9 @@ public class ReadWrite {
 
   private final BeanHolder holder;
 
+  /** Strength of the covering array used to combine property values, or zero to test every pair exhaustively. */
+  private int combinationStrength = TestContext.get().getCombinationStrength();
+
   private final String[] propertyNames;
 
   private final Map<String, Object[]> values = new HashMap<>();
@@ -53,11 +58,39 @@ public class ReadWrite {
   }
 
 
+  /**
+   * Set the interaction strength used to combine property values. Zero tests every pair of property values exhaustively. A positive value uses a covering
+   * array of that strength, in which every property is assigned one of its values or is omitted.
+   *
+   * @param combinationStrength the interaction strength
+   *
+   * @return this
+   */
+  public ReadWrite combinationStrength(int combinationStrength) {
+    if (combinationStrength < 0) {
+      throw new IllegalArgumentException("Combination strength must not be negative: " + combinationStrength);
+    }
+    this.combinationStrength = combinationStrength;
+    return this;
+  }
+
+
   /** Test the setting and reading of properties. */
   public void test() {
-    testToString();
-    testAllCombinations();
-    testRandom();
+    PhaseEvent event = PhaseEvent.start(PhaseEvent.READ_WRITE, holder.getBeanClass());
+    boolean succeeded = false;
+    try {
+      testToString();
+      if (combinationStrength > 0) {
+        testCoveringCombinations();
+      } else {
+        testAllCombinations();
+      }
+      testRandom();
+      succeeded = true;
+    } finally {
+      event.finish(propertyNames.length, succeeded);
+    }
   }
 
 
@@ -87,13 +120,42 @@ public class ReadWrite {
   }
 
 
+  private void testCoveringCombinations() {
+    // Every property can take any of its values, or be omitted. The omitted level is the last one.
+    int[] levels = new int[propertyNames.length];
+    for (int i = 0; i < propertyNames.length; i++) {
+      levels[i] = values.get(propertyNames[i]).length + 1;
+    }
+
+    List<int[]> rows = new CoveringArray(levels, combinationStrength).generate();
+    for (int[] row : rows) {
+      holder.reset();
+
+      for (int i = 0; i < propertyNames.length; i++) {
+        Object[] propertyValues = values.get(propertyNames[i]);
+        int level = row[i];
+        // Both "don't care" and the omitted level leave the property unset.
+        if (level != CoveringArray.DONT_CARE && level < propertyValues.length) {
+          holder.setProperty(propertyNames[i], propertyValues[level]);
+        }
+      }
+
+      for (String name : propertyNames) {
+        holder.verify(name);
+      }
+    }
+  }
+
+
   private void testRandom() {
-    RandomGenerator random = TestContext.get().getRandom();
+    TestContext context = TestContext.get();
+    RandomGenerator random = context.getRandom();
     holder.reset();
 
     int paramCount = propertyNames.length;
 
-    for (int trial = 0; trial < 5; trial++) {
+    long startTime = System.nanoTime();
+    for (int trial = 0; context.hasMoreRuns(trial, startTime); trial++) {
       for (int i = 0; i < 3 * paramCount; i++) {
         String property = propertyNames[random.nextInt(paramCount)];
         Object value = holder.createValue(ValueType.RANDOM, property);
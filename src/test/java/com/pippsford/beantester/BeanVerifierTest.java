@@ -1,8 +1,22 @@
 package com.pippsford.beantester;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.pippsford.beantester.info.Specs;
+import com.pippsford.beantester.mirror.AccessorStrategy;
 import com.pippsford.beantester.sample.beans.ErrorResponse;
 import com.pippsford.beantester.sample.beans.Unpredictable;
 import com.pippsford.beantester.sample.beans.Unpredictable2;
@@ -10,6 +24,52 @@ import org.junit.jupiter.api.Test;
 
 class BeanVerifierTest {
 
+  /** A bean which records the names it is given, so verifications can be compared. */
+  public static class Recorded {
+
+    static final Map<Class<?>, List<String>> NAMES = new ConcurrentHashMap<>();
+
+    private String name;
+
+
+    @Override
+    public boolean equals(Object o) {
+      return o != null && o.getClass() == getClass() && Objects.equals(name, ((Recorded) o).name);
+    }
+
+
+    public String getName() {
+      return name;
+    }
+
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(name);
+    }
+
+
+    public void setName(String name) {
+      NAMES.computeIfAbsent(getClass(), k -> Collections.synchronizedList(new ArrayList<>())).add(name);
+      this.name = name;
+    }
+
+  }
+
+
+
+  public static class RecordedOne extends Recorded {
+
+  }
+
+
+
+  public static class RecordedTwo extends Recorded {
+
+  }
+
+
+
   @Test
   void testErrorResponse() {
     BeanVerifier.verify(ErrorResponse.class,
@@ -19,6 +79,31 @@ class BeanVerifierTest {
   }
 
 
+  @Test
+  void testErrorResponsePairwise() {
+    BeanVerifier.verify(ErrorResponse.class,
+        Specs.notNull("parameters"),
+        Specs.onOmitted(NullBehaviour.VARIABLE, "timestamp"),
+        Specs.pairwise()
+    );
+  }
+
+
+  @Test
+  void testErrorResponseMethodHandles() {
+    TestContext.push().setAccessorStrategy(AccessorStrategy.METHOD_HANDLE);
+    try {
+      // verify() would close the pushed context, so verify within it
+      BeanVerifier.verifyWithContext(ErrorResponse.class,
+          Specs.notNull("parameters"),
+          Specs.onOmitted(NullBehaviour.VARIABLE, "timestamp")
+      );
+    } finally {
+      TestContext.pop();
+    }
+  }
+
+
   @Test
   void testUnpredictable() {
     Unpredictable.counter.set(0);
@@ -62,4 +147,69 @@ class BeanVerifierTest {
 
   }
 
+
+  @Test
+  void testVerifyAll() {
+    Unpredictable.counter.set(0);
+    Unpredictable2.counter.set(0);
+    List<Class<?>> classes = List.of(Unpredictable.class, Unpredictable2.class);
+
+    AssertionException thrown = assertThrows(AssertionException.class, () -> BeanVerifier.verifyAll(classes));
+    assertEquals(2, thrown.getSuppressed().length);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Map<Class<?>, Throwable> failures = BeanVerifier.tryVerifyAll(classes, executor);
+      assertEquals(classes, List.copyOf(failures.keySet()));
+      assertTrue(failures.values().stream().allMatch(AssertionException.class::isInstance));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+
+  @Test
+  void testVerifyAllIgnoresDuplicates() {
+    Unpredictable.counter.set(0);
+    AtomicInteger tasks = new AtomicInteger();
+    List<Class<?>> classes = List.of(Unpredictable.class, RecordedOne.class, Unpredictable.class);
+
+    Map<Class<?>, Throwable> failures = BeanVerifier.tryVerifyAll(classes, task -> {
+      tasks.incrementAndGet();
+      task.run();
+    });
+    assertEquals(2, tasks.get());
+    assertEquals(List.of(Unpredictable.class), List.copyOf(failures.keySet()));
+
+    AssertionException thrown = assertThrows(AssertionException.class, () -> BeanVerifier.verifyAll(classes, Runnable::run));
+    assertTrue(thrown.getMessage().startsWith("1 of 2 classes failed verification"), thrown.getMessage());
+  }
+
+
+  @Test
+  void testVerifyAllIsRepeatable() {
+    List<Class<?>> classes = List.of(RecordedOne.class, RecordedTwo.class);
+    TestContext.push().setRepeatable(20240229L);
+    try {
+      // Verify each class in turn on this thread
+      Recorded.NAMES.clear();
+      assertTrue(BeanVerifier.tryVerifyAll(classes, Runnable::run).isEmpty());
+      Map<Class<?>, List<String>> sequential = new HashMap<>();
+      Recorded.NAMES.forEach((k, v) -> sequential.put(k, List.copyOf(v)));
+      assertEquals(2, sequential.size());
+
+      // Verify the classes at the same time on a pool
+      Recorded.NAMES.clear();
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        assertTrue(BeanVerifier.tryVerifyAll(classes, executor).isEmpty());
+      } finally {
+        executor.shutdown();
+      }
+      assertEquals(sequential, Recorded.NAMES);
+    } finally {
+      TestContext.pop();
+    }
+  }
+
 }
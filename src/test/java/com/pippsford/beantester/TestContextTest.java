@@ -0,0 +1,83 @@
+package com.pippsford.beantester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TestContextTest {
+
+  private static int countRuns(TestContext context) {
+    int count = 0;
+    long startTime = System.nanoTime();
+    while (context.hasMoreRuns(count, startTime)) {
+      count++;
+    }
+    return count;
+  }
+
+
+  @Test
+  void testLongBudgetRunsPastMinimum() {
+    TestContext context = TestContext.push();
+    try {
+      context.setRuns(2);
+      context.setTimeBudget(Duration.ofHours(1));
+      assertTrue(context.hasMoreRuns(10, System.nanoTime()));
+
+      // Once the budget is spent, only the minimum runs matter
+      long expired = System.nanoTime() - Duration.ofHours(2).toNanos();
+      assertFalse(context.hasMoreRuns(2, expired));
+      assertTrue(context.hasMoreRuns(1, expired));
+    } finally {
+      TestContext.pop();
+    }
+  }
+
+
+  @Test
+  void testNoBudgetKeepsRunCount() {
+    TestContext context = TestContext.push();
+    try {
+      assertNull(context.getTimeBudget());
+      context.setRuns(7);
+      assertEquals(7, countRuns(context));
+    } finally {
+      TestContext.pop();
+    }
+  }
+
+
+  @Test
+  void testRunInheritedResetsDepth() {
+    // Simulate a task that was abandoned part way through a structure
+    ValueFactory.DEPTH.get().set(5);
+    try {
+      AtomicInteger seen = new AtomicInteger(-1);
+      TestContext.runInherited(TestContext.get(), () -> seen.set(ValueFactory.getStructureDepth()));
+      assertEquals(0, seen.get());
+      assertEquals(5, ValueFactory.getStructureDepth());
+    } finally {
+      ValueFactory.DEPTH.remove();
+    }
+  }
+
+
+  @Test
+  void testZeroBudgetStopsAfterMinimum() {
+    TestContext context = TestContext.push();
+    try {
+      context.setRuns(3);
+      context.setTimeBudget(Duration.ZERO);
+      assertEquals(3, countRuns(context));
+    } finally {
+      TestContext.pop();
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+package com.pippsford.beantester.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pippsford.beantester.ValueFactory;
+import com.pippsford.beantester.factories.FactoryLookup;
+import com.pippsford.beantester.factories.FactoryRepository;
+import com.pippsford.beantester.info.BeanDescription;
+import com.pippsford.beantester.sample.beans.BankAccount;
+
+class EventsTest {
+
+  private static RecordedEvent find(List<RecordedEvent> events, String name, Predicate<RecordedEvent> test) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().equals(name))
+        .filter(test)
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No " + name + " event was recorded"));
+  }
+
+
+  @TempDir
+  Path directory;
+
+
+  private List<RecordedEvent> record(Runnable task) throws IOException {
+    Path file = directory.resolve("events.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(PhaseEvent.class);
+      recording.enable(FactoryResolutionEvent.class);
+      recording.start();
+      task.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file);
+  }
+
+
+  @Test
+  void testDescriptionIsRecorded() throws IOException {
+    BeanDescription[] description = new BeanDescription[1];
+    List<RecordedEvent> events = record(() -> description[0] = BeanDescription.create(BankAccount.class));
+
+    RecordedEvent event = find(events, "com.pippsford.beantester.Phase",
+        e -> PhaseEvent.DESCRIPTION.equals(e.getString("phase")) && e.getClass("beanClass").getName().equals(BankAccount.class.getName())
+    );
+    assertEquals(description[0].getProperties().size(), event.getInt("propertyCount"));
+    assertTrue(event.getBoolean("succeeded"));
+  }
+
+
+  @Test
+  void testFailedResolutionIsRecorded() throws IOException {
+    FactoryRepository repository = new FactoryRepository();
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        throw new IllegalStateException("Lookup failed for " + type);
+      }
+    });
+    List<RecordedEvent> events = record(() -> assertThrows(IllegalStateException.class, () -> repository.getFactory(Runnable.class)));
+
+    RecordedEvent event = find(events, "com.pippsford.beantester.FactoryResolution", e -> Runnable.class.getName().equals(e.getString("type")));
+    assertFalse(event.getBoolean("found"));
+    assertFalse(event.getBoolean("succeeded"));
+  }
+
+}
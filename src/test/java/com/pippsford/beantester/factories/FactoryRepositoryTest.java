@@ -1,13 +1,28 @@
 package com.pippsford.beantester.factories;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.lang.reflect.Type;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -17,6 +32,43 @@ import com.pippsford.beantester.ValueType;
 
 class FactoryRepositoryTest {
 
+  /** A bean which can only be created once there is a factory for its contents. */
+  public static class Crate {
+
+    private final Unbuildable contents;
+
+
+    public Crate(Unbuildable contents) {
+      this.contents = contents;
+    }
+
+
+    public Unbuildable getContents() {
+      return contents;
+    }
+
+  }
+
+
+
+  static class Gadget {
+
+  }
+
+
+
+  abstract static class Unbuildable {
+
+  }
+
+
+
+  static class Widget {
+
+  }
+
+
+
   @Test
   void testAllFactories() {
     TestContext.close();
@@ -70,4 +122,395 @@ class FactoryRepositoryTest {
     }
   }
 
+
+  @Test
+  void testBeanFailuresAreForgotten() {
+    TestContext context = TestContext.push();
+    try {
+      FactoryRepository repository = context.getFactories();
+      assertTrue(repository.tryGetFactory(Crate.class).isEmpty());
+      assertTrue(repository.getMisses().get(Crate.class).startsWith("creating a bean failed"));
+
+      // Once the missing factory is added, the bean is tried again
+      repository.addFactory(new ValueFactory(Unbuildable.class, valueType -> new Unbuildable() { }));
+      assertTrue(repository.tryGetFactory(Crate.class).isPresent());
+    } finally {
+      TestContext.pop();
+    }
+  }
+
+
+  @Test
+  void testConcurrentResolution() throws Exception {
+    AtomicInteger resolutions = new AtomicInteger();
+    FactoryRepository repository = new FactoryRepository();
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        if (type != Widget.class) {
+          return Optional.empty();
+        }
+        resolutions.incrementAndGet();
+        try {
+          // Give the other threads time to ask for the same type
+          Thread.sleep(50);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Optional.of(new ValueFactory(Widget.class, valueType -> new Widget()));
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ValueFactory>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> repository.getFactory(Widget.class)));
+      }
+      ValueFactory first = futures.get(0).get();
+      for (Future<ValueFactory> future : futures) {
+        assertSame(first, future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, resolutions.get());
+  }
+
+
+  @Test
+  void testCopyForgetsMisses() {
+    FactoryRepository repository = new FactoryRepository();
+    assertTrue(repository.tryGetFactory(Unbuildable.class).isEmpty());
+    assertTrue(repository.getMisses().containsKey(Unbuildable.class));
+
+    // The repository is still empty, so it shares the copied factories, and what it could not find before may now be found
+    ValueFactory factory = new ValueFactory(Unbuildable.class, valueType -> new Unbuildable() { });
+    FactoryRepository source = new FactoryRepository();
+    source.addFactory(factory);
+    repository.copy(source);
+    assertTrue(repository.getMisses().isEmpty());
+    assertSame(factory, repository.getFactory(Unbuildable.class));
+  }
+
+
+  @Test
+  void testCopyIsLayered() {
+    ValueFactory first = new ValueFactory(Widget.class, valueType -> new Widget());
+    ValueFactory second = new ValueFactory(Widget.class, valueType -> new Widget());
+    FactoryRepository parent = new FactoryRepository();
+    parent.addFactory(first);
+    parent.addFactory(Widget.class, "name", first);
+
+    FactoryRepository child = new FactoryRepository();
+    child.copy(parent);
+    assertSame(first, child.getFactory(Widget.class));
+    assertSame(first, child.getFactory(Widget.class, "name", String.class));
+
+    // Additions to either repository are not seen by the other
+    child.addFactory(second);
+    assertSame(second, child.getFactory(Widget.class));
+    assertSame(first, parent.getFactory(Widget.class));
+
+    parent.addFactory(Widget.class, "name", second);
+    assertSame(first, child.getFactory(Widget.class, "name", String.class));
+    assertSame(second, parent.getFactory(Widget.class, "name", String.class));
+
+    // Repeated copies stay correct when the layers are flattened
+    FactoryRepository current = child;
+    for (int i = 0; i < 20; i++) {
+      current.addFactory(Widget.class, "p" + i, first);
+      FactoryRepository next = new FactoryRepository();
+      next.copy(current);
+      current = next;
+    }
+    assertSame(second, current.getFactory(Widget.class));
+    for (int i = 0; i < 20; i++) {
+      assertSame(first, current.getFactory(Widget.class, "p" + i, String.class));
+    }
+    assertEquals(Set.of(Widget.class), current.getRegisteredClasses());
+  }
+
+
+  @Test
+  void testCycleIsBroken() throws Exception {
+    ValueFactory widgetFactory = new ValueFactory(Widget.class, valueType -> new Widget());
+    ValueFactory gadgetFactory = new ValueFactory(Gadget.class, valueType -> new Gadget());
+    CountDownLatch bothResolving = new CountDownLatch(2);
+    AtomicBoolean widgetAsked = new AtomicBoolean();
+    AtomicBoolean gadgetAsked = new AtomicBoolean();
+    FactoryRepository repository = new FactoryRepository();
+
+    // Resolving a widget needs a gadget, and resolving a gadget needs a widget. Each thread holds one resolution while it waits for the other.
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        AtomicBoolean asked = type == Widget.class ? widgetAsked : type == Gadget.class ? gadgetAsked : null;
+        if (asked == null) {
+          return Optional.empty();
+        }
+        if (!asked.getAndSet(true)) {
+          bothResolving.countDown();
+          try {
+            bothResolving.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          repository.getFactory(type == Widget.class ? Gadget.class : Widget.class);
+        }
+        return Optional.of(type == Widget.class ? widgetFactory : gadgetFactory);
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<ValueFactory> widget = executor.submit(() -> repository.getFactory(Widget.class));
+      Future<ValueFactory> gadget = executor.submit(() -> repository.getFactory(Gadget.class));
+      assertSame(widgetFactory, widget.get(10, TimeUnit.SECONDS));
+      assertSame(gadgetFactory, gadget.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+
+  @Test
+  void testLookupsAreAskedByFamily() {
+    List<Type> enumTypes = new ArrayList<>();
+    List<Type> allTypes = new ArrayList<>();
+    FactoryRepository repository = new FactoryRepository();
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        allTypes.add(type);
+        return Optional.empty();
+      }
+    });
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        enumTypes.add(type);
+        return Optional.empty();
+      }
+
+
+      @Override
+      public Set<TypeFamily> getTypeFamilies() {
+        return Set.of(TypeFamily.ENUM);
+      }
+    });
+
+    repository.tryGetFactory(Widget.class);
+    repository.tryGetFactory(ValueType.class);
+    assertEquals(List.of(ValueType.class), enumTypes);
+    assertEquals(List.of(Widget.class, ValueType.class), allTypes);
+    assertEquals(TypeFamily.COLLECTION, TypeFamily.of(ArrayList.class));
+    assertEquals(TypeFamily.PRIMITIVE, TypeFamily.of(void.class));
+  }
+
+
+  @Test
+  void testMissesAreRemembered() {
+    AtomicInteger lookups = new AtomicInteger();
+    FactoryRepository repository = new FactoryRepository();
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        lookups.incrementAndGet();
+        return Optional.empty();
+      }
+    });
+
+    assertTrue(repository.tryGetFactory(Unbuildable.class).isEmpty());
+    assertThrows(NoSuchFactoryException.class, () -> repository.getFactory(Unbuildable.class));
+    assertEquals(1, lookups.get());
+    assertTrue(repository.getMisses().get(Unbuildable.class).contains("abstract"));
+
+    // Adding a lookup forgets the misses
+    repository.addFactoryLookup(new FactoryLookup() {
+    });
+    assertTrue(repository.getMisses().isEmpty());
+    assertTrue(repository.tryGetFactory(Unbuildable.class).isEmpty());
+    assertEquals(2, lookups.get());
+  }
+
+
+  @Test
+  void testOverridesIgnoreFamilies() {
+    List<Type> types = new ArrayList<>();
+    ValueFactory factory = new ValueFactory(String.class, valueType -> "x");
+    FactoryRepository repository = new FactoryRepository();
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        types.add(type);
+        return Optional.empty();
+      }
+
+
+      @Override
+      public Optional<ValueFactory> getFactory(Class<?> beanClass, String propertyName, Type propertyType) {
+        return beanClass == Widget.class ? Optional.of(factory) : Optional.empty();
+      }
+
+
+      @Override
+      public Set<TypeFamily> getTypeFamilies() {
+        return Set.of(TypeFamily.PRIMITIVE);
+      }
+    });
+
+    // The lookup is asked for a property's factory even though the property's type is not in its families
+    assertSame(factory, repository.tryGetOverride(Widget.class, "name", String.class).orElseThrow());
+    assertSame(factory, repository.getFactory(Widget.class, "name", String.class));
+
+    // It is still not asked for the type itself
+    repository.tryGetFactory(String.class);
+    assertTrue(types.isEmpty());
+  }
+
+
+  @Test
+  void testOverridesAreRemembered() {
+    AtomicInteger lookups = new AtomicInteger();
+    FactoryRepository repository = new FactoryRepository();
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Class<?> beanClass, String propertyName, Type propertyType) {
+        lookups.incrementAndGet();
+        return Optional.empty();
+      }
+    });
+
+    assertTrue(repository.tryGetOverride(Widget.class, "name", String.class).isEmpty());
+    assertTrue(repository.tryGetOverride(Widget.class, "name", String.class).isEmpty());
+    assertEquals(1, lookups.get());
+
+    // Adding an override replaces the recorded absence
+    ValueFactory factory = new ValueFactory(String.class, valueType -> "x");
+    repository.addFactory(Widget.class, "name", factory);
+    assertSame(factory, repository.tryGetOverride(Widget.class, "name", String.class).orElseThrow());
+    assertSame(factory, repository.tryGetOverride(Widget.class, "name", String.class).orElseThrow());
+    assertEquals(1, lookups.get());
+  }
+
+
+  @Test
+  void testRecursiveResolution() throws Exception {
+    AtomicInteger depth = new AtomicInteger();
+    ValueFactory inner = new ValueFactory(Widget.class, valueType -> new Widget());
+    FactoryRepository repository = new FactoryRepository();
+
+    // A lookup that asks for the type it is resolving must not wait for itself
+    repository.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        if (type != Widget.class) {
+          return Optional.empty();
+        }
+        if (depth.getAndIncrement() == 0) {
+          assertSame(inner, repository.getFactory(Widget.class));
+          return Optional.of(new ValueFactory(Widget.class, valueType -> new Widget()));
+        }
+        return Optional.of(inner);
+      }
+    });
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // The factory registered by the nested resolution is kept
+      assertSame(inner, executor.submit(() -> repository.getFactory(Widget.class)).get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(2, depth.get());
+  }
+
+
+  @Test
+  void testResolutionDuringCopyStaysLocal() {
+    AtomicInteger lookups = new AtomicInteger();
+    FactoryRepository parent = new FactoryRepository();
+    FactoryRepository child = new FactoryRepository();
+    parent.addFactoryLookup(new FactoryLookup() {
+      @Override
+      public Optional<ValueFactory> getFactory(Type type) {
+        if (type != Widget.class) {
+          return Optional.empty();
+        }
+        if (lookups.getAndIncrement() == 0) {
+          // The parent is frozen while it is resolving the type
+          child.copy(parent);
+        }
+        return Optional.of(new ValueFactory(Widget.class, valueType -> new Widget()));
+      }
+    });
+
+    ValueFactory resolved = parent.getFactory(Widget.class);
+    assertSame(resolved, parent.getFactory(Widget.class));
+
+    // The resolved factory was not added to the layer the child shares, so the child resolves the type for itself
+    assertNotSame(resolved, child.getFactory(Widget.class));
+    assertEquals(2, lookups.get());
+  }
+
+
+  @Test
+  void testStaleBeanFailuresAreDiscarded() throws Exception {
+    CountDownLatch resolving = new CountDownLatch(1);
+    CountDownLatch added = new CountDownLatch(1);
+    TestContext context = TestContext.push();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      FactoryRepository repository = context.getFactories();
+
+      // Hold up the search for the crate's contents until another thread has added the missing factory
+      repository.addFactoryLookup(new FactoryLookup() {
+        @Override
+        public Optional<ValueFactory> getFactory(Type type) {
+          if (type == Unbuildable.class && resolving.getCount() > 0) {
+            resolving.countDown();
+            try {
+              assertTrue(added.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          return Optional.empty();
+        }
+      });
+      Future<?> adding = executor.submit(() -> {
+        assertTrue(resolving.await(10, TimeUnit.SECONDS));
+        repository.addFactory(new ValueFactory(Unbuildable.class, valueType -> new Unbuildable() { }));
+        added.countDown();
+        return null;
+      });
+
+      // This attempt started before the factory was added, so it fails, but its failure must not outlive the change
+      assertTrue(repository.tryGetFactory(Crate.class).isEmpty());
+      adding.get(10, TimeUnit.SECONDS);
+      assertTrue(repository.tryGetFactory(Crate.class).isPresent());
+    } finally {
+      executor.shutdownNow();
+      TestContext.pop();
+    }
+  }
+
+
+  @Test
+  void testVersionFollowsChanges() {
+    FactoryRepository parent = new FactoryRepository();
+    parent.addFactory(new ValueFactory(Widget.class, valueType -> new Widget()));
+
+    // An empty repository that copies another provides the same factories
+    FactoryRepository child = new FactoryRepository();
+    child.copy(parent);
+    assertSame(parent.getVersion(), child.getVersion());
+
+    Object version = child.getVersion();
+    child.addFactory(Widget.class, "name", new ValueFactory(String.class, valueType -> "x"));
+    assertNotEquals(version, child.getVersion());
+    assertSame(version, parent.getVersion());
+  }
+
 }
@@ -1,14 +1,75 @@
 package com.pippsford.beantester.info;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.pippsford.beantester.sample.beans.PetRecord;
 import com.pippsford.beantester.sample.beans.Unpredictable;
 import org.junit.jupiter.api.Test;
 
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.ValueFactory;
+import com.pippsford.beantester.info.Specs.DescriptionCustomiser;
 import com.pippsford.beantester.sample.beans.ApproverManifest;
 
 class BeanDescriptionTest {
 
+  /** A bean whose accessors are public, but which cannot be accessed from outside this package. */
+  private static class Hidden {
+
+    private String name;
+
+
+    public String getName() {
+      return name;
+    }
+
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+  }
+
+
+
+  /** A type which has no factory unless a test adds one. */
+  public abstract static class Part {
+
+  }
+
+
+
+  /** A bean which can only be constructed if there is a factory for its constructor's parameter. */
+  public static class Wrapper {
+
+    private final Part part;
+
+
+    public Wrapper(Part part) {
+      this.part = part;
+    }
+
+
+    public Part getPart() {
+      return part;
+    }
+
+  }
+
+
+
   @Test
   void testConstructor() {
     BeanDescription info = BeanDescription.create(ApproverManifest.class);
@@ -17,4 +78,129 @@ class BeanDescriptionTest {
   }
 
 
+  @Test
+  void testCachedCopiesAreIndependent() {
+    BeanDescription first = BeanDescription.create(ApproverManifest.class);
+    BeanDescription second = BeanDescription.create(ApproverManifest.class);
+    assertNotSame(first, second);
+    assertNotSame(first.getBeanCreator(), second.getBeanCreator());
+    assertEquals(first.getPropertyNames(), second.getPropertyNames());
+
+    // Changing one copy does not change the other, nor later copies.
+    String name = first.getPropertyNames().iterator().next();
+    first.getProperty(name).setIgnored(true);
+    assertFalse(second.getProperty(name).isIgnored());
+    assertFalse(BeanDescription.create(ApproverManifest.class).getProperty(name).isIgnored());
+    assertTrue(first.getProperty(name).isIgnored());
+  }
+
+
+  @Test
+  void testTemplatesFollowTheFactories() {
+    TestContext.push().addFactory(new ValueFactory(Part.class, valueType -> new Part() { }));
+    try {
+      assertEquals(Set.of("part"), BeanDescription.create(Wrapper.class).getPropertyNames());
+    } finally {
+      TestContext.pop();
+    }
+
+    // Without a factory for the parameter the constructor cannot be used, so the other context's template must not be re-used.
+    assertThrows(IllegalStateException.class, () -> BeanDescription.create(Wrapper.class));
+  }
+
+
+  @Test
+  void testTemplatesWithSpecs() {
+    AtomicInteger customised = new AtomicInteger();
+    DescriptionCustomiser counter = description -> customised.incrementAndGet();
+    BeanDescription first = BeanDescription.create(PetRecord.class, counter);
+    BeanDescription second = BeanDescription.create(PetRecord.class, counter);
+    assertNotSame(first, second);
+    assertEquals(first.getPropertyNames(), second.getPropertyNames());
+    assertEquals(1, customised.get());
+
+    // Other specifications and other factories have their own templates, and do not evict this one.
+    BeanDescription.create(PetRecord.class, (DescriptionCustomiser) description -> { });
+    TestContext.push().addFactory(new ValueFactory(Part.class, valueType -> new Part() { }));
+    try {
+      BeanDescription.create(PetRecord.class, counter);
+    } finally {
+      TestContext.pop();
+    }
+    assertEquals(2, customised.get());
+    BeanDescription.create(PetRecord.class, counter);
+    assertEquals(2, customised.get());
+  }
+
+
+  @Test
+  void testFieldAccess() throws NoSuchMethodException {
+    BeanDescription info = BeanDescription.create(Unpredictable.class, Specs.fieldAccess("id"));
+    Property id = info.getProperty("id");
+    Property thing = info.getProperty("thing");
+
+    // The accessors are still reported, even though the field is used.
+    assertEquals(Unpredictable.class.getMethod("getId"), id.getReadMethod().orElseThrow());
+    assertEquals(Unpredictable.class.getMethod("setId", Integer.class), id.getWriteMethod().orElseThrow());
+    assertEquals(Integer.class, id.getType());
+
+    // The setter replaces a null, but the field does not.
+    Unpredictable bean = new Unpredictable();
+    id.write(bean, null);
+    assertNull(id.read(bean));
+    id.write(bean, 5);
+    assertEquals(5, bean.getId());
+    thing.write(bean, null);
+    assertNotNull(thing.read(bean));
+  }
+
+
+  @Test
+  void testRecord() {
+    BeanDescription info = BeanDescription.create(PetRecord.class);
+    assertInstanceOf(RecordConstructor.class, info.getBeanCreator());
+
+    // Only the components are properties.
+    assertEquals(Set.of("cat", "dog", "fish"), info.getPropertyNames());
+    assertTrue(info.getProperty("cat").isNotNull());
+    assertFalse(info.getProperty("dog").isNotNull());
+
+    Object pet = info.getBeanCreator().apply(Map.of("cat", "Tom", "fish", "Nemo"));
+    assertEquals(new PetRecord("Tom", null, "Nemo"), pet);
+    assertEquals("Tom", info.getProperty("cat").read(pet));
+  }
+
+
+  @Test
+  void testInaccessibleAccessorsFailWhenUsed() throws NoSuchMethodException {
+    Property name = new Property("name")
+        .setReadMethod(Hidden.class.getMethod("getName"))
+        .setWriteMethod(Hidden.class.getMethod("setName", String.class));
+
+    // Binding is deferred until the property is used, and a failure is reported the same way for reads and writes.
+    Hidden bean = new Hidden();
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> name.read(bean));
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    e = assertThrows(IllegalStateException.class, () -> name.write(bean, "fred"));
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+  }
+
+
+  @Test
+  void testMethodsAreBoundWhenUsed() throws NoSuchMethodException {
+    TreeMap<String, Property> properties = new TreeMap<>();
+    Property.merge(properties, new Property("id").setReadMethod(Unpredictable.class.getMethod("getId")));
+    Property.merge(properties, new Property("id").setWriteMethod(Unpredictable.class.getMethod("setId", Integer.class)));
+
+    Property id = properties.get("id");
+    assertTrue(id.isReadable());
+    assertTrue(id.isWritable());
+    assertEquals(Integer.class, id.getType());
+    assertEquals(Unpredictable.class.getMethod("getId"), id.getReadMethod().orElseThrow());
+
+    Unpredictable bean = new Unpredictable();
+    id.write(bean, 7);
+    assertEquals(7, (Integer) id.read(bean));
+  }
+
 }
@@ -0,0 +1,66 @@
+package com.pippsford.beantester.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.ValueType;
+import com.pippsford.beantester.sample.beans.BankAccount;
+
+class BeanHolderTest {
+
+  /** A bean which can be changed after it is created. */
+  public static class Label {
+
+    private String text;
+
+
+    public String getText() {
+      return text;
+    }
+
+
+    public void setText(String text) {
+      this.text = text;
+    }
+
+  }
+
+
+
+  @Test
+  void testChangedBeanIsNotRead() {
+    BeanHolder holder = BeanDescription.create(Label.class).createHolder()
+        .setSnapshotReads(true)
+        .setAllProperties(ValueType.PRIMARY);
+    Object expected = holder.readExpected("text");
+
+    // The caller owns the new bean, so changing it must not change the actual values.
+    Label label = (Label) holder.newBean();
+    label.setText("changed " + expected);
+    assertEquals(expected, holder.readActual("text"));
+    assertEquals(expected, holder.readActual("text"));
+  }
+
+
+  @Test
+  void testSnapshotReads() {
+    BeanHolder holder = BeanDescription.create(BankAccount.class).createHolder()
+        .setSnapshotReads(true)
+        .setAllProperties(ValueType.PRIMARY);
+
+    // The first read constructs the bean, the others re-use it.
+    holder.verify("account");
+    holder.verify("assetId");
+    holder.verify("bank");
+    assertEquals(2, holder.getAvoidedBuilds());
+
+    // Changing a value forces a new bean.
+    holder.setProperty("bank", holder.createValue(ValueType.SECONDARY, "bank"));
+    holder.verify("bank");
+    assertEquals(2, holder.getAvoidedBuilds());
+    holder.verify("account");
+    assertEquals(3, holder.getAvoidedBuilds());
+  }
+
+}
@@ -0,0 +1,116 @@
+package com.pippsford.beantester.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.sample.beans.BalanceData;
+import com.pippsford.beantester.sample.beans.TypeLabel;
+
+class BeanProxyTest {
+
+  /** An interface that can be generated, with a property that may be null. */
+  public interface Named {
+
+    String getName();
+
+    void setName(String name);
+
+  }
+
+
+
+  /** An interface that cannot be generated, as it has an abstract method which is not an accessor. */
+  public interface Unsupported {
+
+    String getName();
+
+    void reset(String a, String b);
+
+  }
+
+
+  @Test
+  void testChangedPropertiesAreImplemented() {
+    BeanProxy proxy = new BeanProxy(Named.class);
+    Named lenient = (Named) proxy.apply(Map.of("name", "fred"));
+    assertFalse(Proxy.isProxyClass(lenient.getClass()));
+    lenient.setName(null);
+
+    // Making the property not-null after a bean has been created must change later beans
+    proxy.getProperty("name").setNotNull(true);
+    Named strict = (Named) proxy.apply(Map.of("name", "fred"));
+    assertThrows(IllegalArgumentException.class, () -> strict.setName(null));
+  }
+
+
+  @Test
+  void testFallback() {
+    BeanProxy proxy = new BeanProxy(Unsupported.class);
+    Object bean = proxy.apply(Map.of("name", "fred"));
+    assertTrue(Proxy.isProxyClass(bean.getClass()));
+    assertEquals("fred", ((Unsupported) bean).getName());
+  }
+
+
+  @Test
+  void testGenerated() {
+    BeanProxy proxy = new BeanProxy(TypeLabel.class);
+    TypeLabel label = (TypeLabel) proxy.apply(Map.of("label", "HOT"));
+    assertFalse(Proxy.isProxyClass(label.getClass()));
+    assertTrue(label.getClass().isHidden());
+    assertEquals("HOT", label.getLabel());
+
+    assertEquals(label, proxy.apply(Map.of("label", "HOT")));
+    assertEquals(label.hashCode(), proxy.apply(Map.of("label", "HOT")).hashCode());
+    assertNotEquals(label, proxy.apply(Map.of("label", "COLD")));
+    assertEquals("BeanProxy for " + TypeLabel.class.getName(), label.toString());
+  }
+
+
+  @Test
+  void testGeneratedWithDefaultMethods() {
+    BeanProxy proxy = new BeanProxy(BalanceData.class);
+    BalanceData data = (BalanceData) proxy.apply(Map.of("accountId", "a", "assetId", "b"));
+    assertFalse(Proxy.isProxyClass(data.getClass()));
+    assertEquals("a", data.getAccountId());
+
+    // Default methods are still invoked
+    assertEquals(data.getBalance("HOT"), data.getHotBalance());
+
+    // Values for properties read by default methods still affect equality
+    assertNotEquals(
+        proxy.apply(Map.of("accountId", "a", "assetId", "b", "hotBalance", BigDecimal.ONE)),
+        proxy.apply(Map.of("accountId", "a", "assetId", "b", "hotBalance", BigDecimal.TEN))
+    );
+    assertThrows(IllegalArgumentException.class, () -> proxy.apply(Map.of("accountId", "a", "assetId", "b", "unknown", "c")));
+  }
+
+
+  @Test
+  void testOmittedEqualsNull() {
+    Map<String, Object> explicit = new HashMap<>();
+    explicit.put("name", null);
+
+    // The generated implementation and the fallback proxy must agree
+    for (Class<?> type : List.of(Named.class, Unsupported.class)) {
+      BeanProxy proxy = new BeanProxy(type);
+      Object omitted = proxy.apply(Map.of());
+      Object nulled = proxy.apply(explicit);
+      assertEquals(omitted, nulled, type.getName());
+      assertEquals(omitted.hashCode(), nulled.hashCode(), type.getName());
+      assertNotEquals(omitted, proxy.apply(Map.of("name", "fred")), type.getName());
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+package com.pippsford.beantester.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer2;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction1;
+
+class DeclaredAccessorsTest {
+
+  public abstract static class Base {
+
+    private String name;
+
+
+    public String getName() {
+      return name;
+    }
+
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+  }
+
+
+
+  public static class First extends Base {
+
+  }
+
+
+
+  public static class Second extends Base {
+
+    private int size;
+
+
+    public int getSize() {
+      return size;
+    }
+
+
+    public void setSize(int size) {
+      this.size = size;
+    }
+
+  }
+
+
+
+  @Test
+  void testInheritedAccessorsAreShared() throws NoSuchMethodException {
+    Method first = First.class.getMethod("getName");
+    Method second = Second.class.getMethod("getName");
+    assertSame(DeclaredAccessors.get(SerializableFunction1.class, first), DeclaredAccessors.get(SerializableFunction1.class, second));
+    assertNotSame(DeclaredAccessors.get(SerializableFunction1.class, first), DeclaredAccessors.get(SerializableFunction1.class, Second.class.getMethod("getSize")));
+
+    // Setters are shared in the same way.
+    Method setter = Base.class.getMethod("setName", String.class);
+    assertSame(DeclaredAccessors.get(SerializableConsumer2.class, setter), DeclaredAccessors.get(SerializableConsumer2.class, setter));
+  }
+
+
+  @Test
+  void testSubclassDescriptions() {
+    BeanDescription firstInfo = BeanDescription.create(First.class);
+    BeanDescription secondInfo = BeanDescription.create(Second.class);
+
+    First first = new First();
+    firstInfo.getProperty("name").write(first, "one");
+    assertEquals("one", first.getName());
+
+    Second second = new Second();
+    secondInfo.getProperty("name").write(second, "two");
+    secondInfo.getProperty("size").write(second, 2);
+    assertEquals("two", secondInfo.getProperty("name").read(second));
+    assertEquals(2, second.getSize());
+  }
+
+}
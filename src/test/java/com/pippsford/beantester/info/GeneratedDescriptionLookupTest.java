@@ -0,0 +1,60 @@
+package com.pippsford.beantester.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableConsumer2;
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction1;
+import com.pippsford.beantester.sample.beans.Unpredictable;
+
+class GeneratedDescriptionLookupTest {
+
+  /** A lookup in the form created by the annotation processor. */
+  static class Lookup extends GeneratedDescriptionLookup {
+
+    @Override
+    protected Collection<Property> getProperties(Class<?> type) {
+      if (type != Unpredictable.class) {
+        return null;
+      }
+      ArrayList<Property> properties = new ArrayList<>();
+      properties.add(getter("id", (SerializableFunction1<Unpredictable, Integer>) Unpredictable::getId, false));
+      properties.add(setter("id", (SerializableConsumer2<Unpredictable, Integer>) Unpredictable::setId, false));
+      properties.add(setter("thing", (SerializableConsumer2<Unpredictable, Integer>) Unpredictable::setThing, false));
+      properties.add(getter("thing", (SerializableFunction1<Unpredictable, Integer>) Unpredictable::thing, false));
+      properties.add(getter("toString", (SerializableFunction1<Unpredictable, String>) Unpredictable::toString, false));
+      properties.add(getter("hashCode", (SerializableFunction1<Unpredictable, Integer>) Unpredictable::hashCode, true));
+      return properties;
+    }
+
+  }
+
+
+  @Test
+  void testMatchesReflection() {
+    BeanDescription reflected = new BeanDescriptionFactory(Unpredictable.class, new Specs.Spec[0], true).create();
+    BeanDescription generated = new Lookup().getDescription(Unpredictable.class).orElseThrow();
+
+    assertEquals(reflected.getPropertyNames(), generated.getPropertyNames());
+    for (String name : reflected.getPropertyNames()) {
+      Property expected = reflected.getProperty(name);
+      Property actual = generated.getProperty(name);
+      assertEquals(expected.getType(), actual.getType(), name);
+      assertEquals(expected.isNotNull(), actual.isNotNull(), name);
+      assertEquals(expected.isReadable(), actual.isReadable(), name);
+      assertEquals(expected.isWritable(), actual.isWritable(), name);
+    }
+  }
+
+
+  @Test
+  void testOtherClasses() {
+    assertTrue(new Lookup().getDescription(String.class).isEmpty());
+  }
+
+}
@@ -0,0 +1,80 @@
+package com.pippsford.beantester.info;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.Test;
+
+class NullnessIndexTest {
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @interface NullMarked {
+
+  }
+
+
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @interface NullUnmarked {
+
+  }
+
+
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.TYPE_USE)
+  @interface Nullable {
+
+  }
+
+
+
+  @NullMarked
+  public static class Marked {
+
+    public static class Nested {
+
+      public @Nullable String getName() {
+        return null;
+      }
+
+
+      public String getValue() {
+        return "";
+      }
+
+    }
+
+
+
+    @NullUnmarked
+    public static class Unmarked {
+
+    }
+
+  }
+
+
+
+  @Test
+  void testScopes() {
+    assertTrue(NullnessIndex.defaultIsNotNull(Marked.class));
+    assertTrue(NullnessIndex.defaultIsNotNull(Marked.Nested.class));
+    assertFalse(NullnessIndex.defaultIsNotNull(Marked.Unmarked.class));
+    assertFalse(NullnessIndex.defaultIsNotNull(NullnessIndexTest.class));
+  }
+
+
+  @Test
+  void testTypeUseAnnotations() {
+    BeanDescription description = BeanDescription.create(Marked.Nested.class);
+    assertFalse(description.getProperty("name").isNotNull());
+    assertTrue(description.getProperty("value").isNotNull());
+  }
+
+}
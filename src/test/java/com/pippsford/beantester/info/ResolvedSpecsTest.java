@@ -0,0 +1,45 @@
+package com.pippsford.beantester.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.info.Specs.MethodFilterSpec;
+import com.pippsford.beantester.info.Specs.PropertyCustomiser;
+import com.pippsford.beantester.info.Specs.ResolvingSpec;
+import com.pippsford.beantester.sample.beans.Unpredictable;
+
+class ResolvedSpecsTest {
+
+  @Test
+  void testForClass() {
+    ResolvedSpecs resolved = ResolvedSpecs.resolve(Unpredictable.class, Specs.beanStyle());
+    assertSame(resolved, resolved.forClass(Unpredictable.class));
+    assertNotSame(resolved, resolved.forClass(String.class));
+    assertEquals(1, resolved.forClass(String.class).get(MethodFilterSpec.class).size());
+
+    ResolvedSpecs unresolved = ResolvedSpecs.of(Specs.beanStyle());
+    assertNotSame(unresolved, unresolved.forClass(Unpredictable.class));
+  }
+
+
+  @Test
+  void testResolve() {
+    PropertyCustomiser notNull = Specs.notNull("id");
+    MethodFilterSpec beanStyle = Specs.beanStyle();
+    ResolvingSpec resolving = beanClass -> List.of(notNull, beanStyle);
+
+    ResolvedSpecs resolved = ResolvedSpecs.resolve(Unpredictable.class, resolving, Specs.fieldAccess());
+    assertEquals(List.of(notNull), resolved.get(PropertyCustomiser.class));
+    assertEquals(List.of(beanStyle), resolved.get(MethodFilterSpec.class));
+    assertEquals(beanStyle, resolved.first(MethodFilterSpec.class).orElseThrow());
+    assertTrue(resolved.first(Specs.BeanCreator.class).isEmpty());
+    assertEquals(3, resolved.toArray().length);
+  }
+
+}
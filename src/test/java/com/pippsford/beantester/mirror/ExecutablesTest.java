@@ -0,0 +1,47 @@
+package com.pippsford.beantester.mirror;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.mirror.SerializableLambdas.SerializableFunction1;
+
+class ExecutablesTest {
+
+  /** Every call returns an instance of the same lambda class, capturing a different prefix. */
+  private static SerializableFunction1<String, Boolean> startsWith(String prefix) {
+    return prefix::startsWith;
+  }
+
+
+  @Test
+  void testDifferentLambdasForOneMethod() throws NoSuchMethodException {
+    SerializableFunction1<String, Integer> first = String::length;
+    SerializableFunction1<String, Integer> second = String::length;
+    assertNotSame(first.getClass(), second.getClass());
+
+    Method expected = String.class.getMethod("length");
+    assertEquals(expected, Executables.findGetter(first));
+    assertEquals(expected, Executables.findGetter(second));
+    assertEquals("isEmpty", Executables.findName((SerializableFunction1<String, Boolean>) String::isEmpty));
+  }
+
+
+  @Test
+  void testResolutionIsShared() throws NoSuchMethodException {
+    SerializableFunction1<String, Boolean> first = startsWith("a");
+    SerializableFunction1<String, Boolean> second = startsWith("b");
+    assertSame(first.getClass(), second.getClass());
+
+    // Reflection returns a new Method every time, so only a cached resolution is the same instance.
+    Method method = Executables.findGetter(first);
+    assertEquals(String.class.getMethod("startsWith", String.class), method);
+    assertSame(method, Executables.findGetter(first));
+    assertSame(method, Executables.findGetter(second));
+  }
+
+}
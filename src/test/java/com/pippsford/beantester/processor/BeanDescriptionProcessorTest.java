@@ -0,0 +1,146 @@
+package com.pippsford.beantester.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pippsford.beantester.info.BeanDescription;
+import com.pippsford.beantester.info.BeanDescriptionLookup;
+import com.pippsford.beantester.info.Property;
+
+class BeanDescriptionProcessorTest {
+
+  /** Beans covering accessor naming, chained setters, records, and nullness from annotations and enclosing scopes. */
+  private static final Map<String, String> SOURCES = Map.ofEntries(
+      Map.entry("NotNull", """
+          @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+          public @interface NotNull { }
+          """),
+      Map.entry("NonNull", """
+          // Not retained at runtime, so the bean tester cannot see it and neither should the processor.
+          @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.SOURCE)
+          public @interface NonNull { }
+          """),
+      Map.entry("NullMarked", """
+          @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+          public @interface NullMarked { }
+          """),
+      Map.entry("Nullable", """
+          @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+          public @interface Nullable { }
+          """),
+      Map.entry("Account", """
+          public class Account {
+            private boolean active;
+            private String name;
+            private String note;
+            public int getBalance() { return 0; }
+            public boolean isActive() { return active; }
+            public void setActive(boolean active) { this.active = active; }
+            @NotNull public String getName() { return name; }
+            public void setName(@NotNull String name) { this.name = name; }
+            @NonNull public String getNote() { return note; }
+            public Account setNote(String note) { this.note = note; return this; }
+            public java.util.List<String> getTags() { return null; }
+          }
+          """),
+      Map.entry("Marked", """
+          @NullMarked
+          public class Marked {
+            private String subtitle;
+            private String title;
+            @Nullable public String getSubtitle() { return subtitle; }
+            public void setSubtitle(@Nullable String subtitle) { this.subtitle = subtitle; }
+            public String getTitle() { return title; }
+            public void setTitle(String title) { this.title = title; }
+            public static class Inner {
+              private String label;
+              public String getLabel() { return label; }
+              public void setLabel(String label) { this.label = label; }
+            }
+          }
+          """),
+      Map.entry("Pet", "public record Pet(@NotNull String name, int age, String owner) { }"),
+      Map.entry("Tag", "@NullMarked public record Tag(String label, @Nullable String colour) { }")
+  );
+
+
+  private static void assertSameProperties(BeanDescription expected, BeanDescription actual) {
+    String bean = expected.getBeanClass().getName();
+    assertEquals(expected.getPropertyNames(), actual.getPropertyNames(), bean);
+    for (String name : expected.getPropertyNames()) {
+      Property reflected = expected.getProperty(name);
+      Property generated = actual.getProperty(name);
+      String message = bean + "." + name;
+      assertEquals(reflected.getType(), generated.getType(), message);
+      assertEquals(reflected.isNotNull(), generated.isNotNull(), message);
+      assertEquals(reflected.getReadMethod(), generated.getReadMethod(), message);
+      assertEquals(reflected.getWriteMethod(), generated.getWriteMethod(), message);
+    }
+  }
+
+
+  private static URLClassLoader compile(Path output) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    List<JavaFileObject> files = new ArrayList<>();
+    SOURCES.forEach((name, body) -> files.add(new SimpleJavaFileObject(URI.create("string:///described/" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return "package described;\n" + body;
+      }
+    }));
+    List<String> options = List.of(
+        "-d", output.toString(),
+        "-classpath", System.getProperty("java.class.path"),
+        "-parameters",
+        "-A" + BeanDescriptionProcessor.PACKAGES_OPTION + "=described"
+    );
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, files);
+    task.setProcessors(List.of(new BeanDescriptionProcessor()));
+    assertTrue(task.call(), () -> "Compilation failed: " + diagnostics.getDiagnostics().stream().map(Diagnostic::toString).toList());
+    return new URLClassLoader(new URL[]{output.toUri().toURL()}, BeanDescriptionProcessorTest.class.getClassLoader());
+  }
+
+
+  @TempDir
+  Path directory;
+
+
+  @Test
+  void testGeneratedMatchesReflection() throws Exception {
+    try (URLClassLoader loader = compile(directory)) {
+      BeanDescriptionLookup lookup = (BeanDescriptionLookup) loader.loadClass("described.BeanTesterDescriptions").getConstructor().newInstance();
+
+      for (String name : List.of("Account", "Marked", "Marked$Inner", "Pet", "Tag")) {
+        Class<?> beanClass = loader.loadClass("described." + name);
+        Optional<BeanDescription> generated = lookup.getDescription(beanClass);
+        assertTrue(generated.isPresent(), name);
+        assertSameProperties(BeanDescription.create(beanClass), generated.get());
+      }
+
+      // Annotations are not beans
+      assertTrue(lookup.getDescription(loader.loadClass("described.NotNull")).isEmpty());
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+package com.pippsford.beantester.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pippsford.beantester.sample.beans.BankAccount;
+
+class BeanScannerTest {
+
+  /** Beans which are compiled for each test, covering each rule a candidate must meet. */
+  private static final Map<String, String> SOURCES = Map.ofEntries(
+      Map.entry("AbstractBean", "public abstract class AbstractBean { public String getName() { return null; } }"),
+      Map.entry("Built", """
+          public class Built {
+            public static class Builder {
+              private Builder() { }
+              public Built build() { return new Built(); }
+            }
+            public static Builder builder() { return new Builder(); }
+            private Built() { }
+            public String getName() { return null; }
+          }
+          """),
+      Map.entry("Constructed", "public class Constructed { public Constructed(String name) { } public String getName() { return null; } }"),
+      Map.entry("Kind", "public enum Kind { A, B; public String getName() { return name(); } }"),
+      Map.entry("NoAccessors", "public class NoAccessors { public void run() { } }"),
+      Map.entry("Outer", """
+          public class Outer {
+            public class Inner { public String getName() { return null; } }
+            public static class Nested { public String getName() { return null; } }
+          }
+          """),
+      Map.entry("Pet", "public record Pet(String name, int age) { }"),
+      Map.entry("Plain", "public class Plain { public String getName() { return null; } public void setName(String name) { } }"),
+      Map.entry("Viewed", "public interface Viewed { String getName(); }")
+  );
+
+
+  private static void compile(Path output, boolean parameters, Map<String, String> sources) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    List<JavaFileObject> files = new ArrayList<>();
+    sources.forEach((name, body) -> files.add(new SimpleJavaFileObject(URI.create("string:///scanned/" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return "package scanned;\n" + body;
+      }
+    }));
+    List<String> options = new ArrayList<>(List.of("-d", output.toString()));
+    if (parameters) {
+      options.add("-parameters");
+    }
+    assertTrue(compiler.getTask(null, null, null, options, null, files).call(), "Compilation failed");
+  }
+
+
+  private static void jar(Path classes, Path jar) throws IOException {
+    try (
+        OutputStream out = Files.newOutputStream(jar);
+        JarOutputStream jarOut = new JarOutputStream(out);
+        Stream<Path> stream = Files.walk(classes)
+    ) {
+      for (Path file : stream.filter(Files::isRegularFile).toList()) {
+        jarOut.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+        jarOut.write(Files.readAllBytes(file));
+        jarOut.closeEntry();
+      }
+    }
+  }
+
+
+  @TempDir
+  Path directory;
+
+
+  @Test
+  void testCandidates() {
+    Path classes = directory.resolve("classes");
+    compile(classes, false, SOURCES);
+    List<String> candidates = new BeanScanner("scanned").addRoot(classes).getCandidates();
+
+    assertEquals(List.of("scanned.Built", "scanned.Outer$Nested", "scanned.Pet", "scanned.Plain", "scanned.Viewed"), candidates);
+  }
+
+
+  @Test
+  void testConstructorNeedsParameterNames() {
+    Path classes = directory.resolve("classes");
+    compile(classes, true, SOURCES);
+    List<String> candidates = new BeanScanner("scanned").addRoot(classes).getCandidates();
+
+    assertTrue(candidates.contains("scanned.Constructed"));
+    assertFalse(candidates.contains("scanned.Outer$Inner"));
+    assertFalse(candidates.contains("scanned.AbstractBean"));
+  }
+
+
+  @Test
+  void testJar() throws IOException {
+    Path classes = directory.resolve("classes");
+    compile(classes, false, SOURCES);
+    Path jar = directory.resolve("scanned.jar");
+    jar(classes, jar);
+
+    assertEquals(
+        new BeanScanner("scanned").addRoot(classes).getCandidates(),
+        new BeanScanner("scanned").addRoot(jar).getCandidates()
+    );
+    assertTrue(new BeanScanner("other").addRoot(jar).getCandidates().isEmpty());
+  }
+
+
+  @Test
+  void testLargeClassFileIsMapped() throws IOException {
+    // Constant strings make the class file bigger than the threshold for memory mapping
+    StringBuilder source = new StringBuilder("public class Large { public String getName() { return null; }\n");
+    String constant = "x".repeat(30_000);
+    for (int i = 0; i < 4; i++) {
+      source.append("public static final String C").append(i).append(" = \"").append(constant).append(i).append("\";\n");
+    }
+    source.append("}");
+
+    Path classes = directory.resolve("classes");
+    compile(classes, false, Map.of("Large", source.toString()));
+    assertTrue(Files.size(classes.resolve("scanned/Large.class")) > 64 * 1024);
+    assertEquals(List.of("scanned.Large"), new BeanScanner("scanned").addRoot(classes).getCandidates());
+  }
+
+
+  @Test
+  void testScan() throws URISyntaxException {
+    Path root = Path.of(BankAccount.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    List<String> candidates = new BeanScanner("com.pippsford.beantester.sample.beans").addRoot(root).getCandidates();
+
+    assertTrue(candidates.contains(BankAccount.class.getName()));
+
+    // Spec filters have no accessors, so they are not beans.
+    assertFalse(candidates.contains("com.pippsford.beantester.sample.beans.BalanceDTO$SpecFilter"));
+  }
+
+}
@@ -0,0 +1,52 @@
+package com.pippsford.beantester.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CoveringArrayTest {
+
+  private static void assertCovered(int[] levels, List<int[]> rows, int first, int second) {
+    boolean[] seen = new boolean[levels[first] * levels[second]];
+    for (int[] row : rows) {
+      if (row[first] != CoveringArray.DONT_CARE && row[second] != CoveringArray.DONT_CARE) {
+        seen[row[first] * levels[second] + row[second]] = true;
+      }
+    }
+    for (boolean b : seen) {
+      assertTrue(b, "Pair of factors " + first + " and " + second + " is not fully covered");
+    }
+  }
+
+
+  @Test
+  void testPairwise() {
+    int[] levels = new int[60];
+    Arrays.fill(levels, 4);
+    List<int[]> rows = new CoveringArray(levels, 2).generate();
+
+    for (int i = 0; i < levels.length; i++) {
+      for (int j = i + 1; j < levels.length; j++) {
+        assertCovered(levels, rows, i, j);
+      }
+    }
+
+    // Far fewer than the 57,600 exhaustive pairs
+    assertTrue(rows.size() < 200, "Too many rows: " + rows.size());
+  }
+
+
+  @Test
+  void testSmall() {
+    // Strength greater than the factor count is the full cartesian product
+    List<int[]> rows = new CoveringArray(new int[]{2, 3}, 3).generate();
+    assertEquals(6, rows.size());
+
+    assertEquals(0, new CoveringArray(new int[0], 2).generate().size());
+  }
+
+}
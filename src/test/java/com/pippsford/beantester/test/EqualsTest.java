@@ -0,0 +1,88 @@
+package com.pippsford.beantester.test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+import com.pippsford.beantester.AssertionException;
+import com.pippsford.beantester.info.BeanDescription;
+
+class EqualsTest {
+
+  /** A bean whose hash code is not consistent with its equals method. */
+  public static class BrokenHashCode {
+
+    private String name;
+
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof BrokenHashCode other && Objects.equals(name, other.name);
+    }
+
+
+    public String getName() {
+      return name;
+    }
+
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
+
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+  }
+
+
+
+  /** A bean with correct equals and hash code methods. */
+  public static class Named {
+
+    private String name;
+
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Named other && Objects.equals(name, other.name);
+    }
+
+
+    public String getName() {
+      return name;
+    }
+
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(name);
+    }
+
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+  }
+
+
+
+  @Test
+  void testBrokenHashCodeFails() {
+    Equals equals = new Equals(BeanDescription.create(BrokenHashCode.class).createHolder());
+    assertThrows(AssertionException.class, equals::test);
+  }
+
+
+  @Test
+  void testCorrectBeanPasses() {
+    new Equals(BeanDescription.create(Named.class).createHolder()).test();
+  }
+
+}
@@ -0,0 +1,128 @@
+package com.pippsford.beantester.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pippsford.beantester.AssertionException;
+import com.pippsford.beantester.TestContext;
+import com.pippsford.beantester.ValueFactory;
+import com.pippsford.beantester.info.BeanDescription;
+import com.pippsford.beantester.info.Property;
+import com.pippsford.beantester.sample.beans.BankAccount;
+
+class InferenceCacheTest {
+
+  /** A bean whose property is nullable, but which rejects null. */
+  public static class Strict {
+
+    private String name = "";
+
+
+    public String getName() {
+      return name;
+    }
+
+
+    public void setName(String name) {
+      this.name = Objects.requireNonNull(name, "name is required");
+    }
+
+  }
+
+
+
+  @TempDir
+  Path directory;
+
+
+  @Test
+  void testCachedExceptionExplainsFailure() {
+    BeanDescription inferred = BeanDescription.create(Strict.class);
+    InferenceCache cache = new InferenceCache(directory, inferred);
+    NullRules.inferNullBehaviour(inferred);
+    NullRules.inferOmittedBehaviour(inferred);
+    cache.store();
+
+    BeanDescription loaded = BeanDescription.create(Strict.class);
+    assertTrue(new InferenceCache(directory, loaded).load());
+    AssertionException failure = assertThrows(AssertionException.class, () -> NullRules.validate(loaded));
+
+    // The failure is explained by the original exception's description, and says where it came from.
+    Throwable cause = assertInstanceOf(InferenceCache.CachedException.class, failure.getCause());
+    assertEquals(inferred.getProperty("name").getNullValue().toString() + " (recorded in the inference cache)", cause.getMessage());
+  }
+
+
+  @Test
+  void testChangedFactoryInvalidates() {
+    BeanDescription inferred = BeanDescription.create(BankAccount.class);
+    InferenceCache cache = new InferenceCache(directory, inferred);
+    NullRules.inferNullBehaviour(inferred);
+    NullRules.inferOmittedBehaviour(inferred);
+    cache.store();
+    assertTrue(new InferenceCache(directory, BeanDescription.create(BankAccount.class)).load());
+
+    // A context which creates different strings must infer the behaviour again.
+    TestContext.push().addFactory(new ValueFactory(String.class, valueType -> "changed " + valueType));
+    try {
+      assertFalse(new InferenceCache(directory, BeanDescription.create(BankAccount.class)).load());
+    } finally {
+      TestContext.pop();
+    }
+  }
+
+
+  @Test
+  void testCorruptEntryIsIgnored() throws IOException {
+    BeanDescription inferred = BeanDescription.create(BankAccount.class);
+    InferenceCache cache = new InferenceCache(directory, inferred);
+    NullRules.inferNullBehaviour(inferred);
+    NullRules.inferOmittedBehaviour(inferred);
+    cache.store();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.writeString(file, "Bean\\:account.null=NOT_A_BEHAVIOUR\n");
+      }
+    }
+    assertFalse(new InferenceCache(directory, BeanDescription.create(BankAccount.class)).load());
+  }
+
+
+  @Test
+  void testRoundTrip() {
+    BeanDescription inferred = BeanDescription.create(BankAccount.class);
+    InferenceCache cache = new InferenceCache(directory, inferred);
+    assertFalse(cache.load());
+    NullRules.inferNullBehaviour(inferred);
+    NullRules.inferOmittedBehaviour(inferred);
+    cache.store();
+
+    // A fresh description has the same key, and so loads the inferred behaviour.
+    BeanDescription loaded = BeanDescription.create(BankAccount.class);
+    assertTrue(new InferenceCache(directory, loaded).load());
+    for (Property property : inferred.getProperties()) {
+      Property other = loaded.getProperty(property.getName());
+      assertEquals(property.getNullBehaviour(), other.getNullBehaviour());
+      assertEquals(property.getOmittedBehaviour(), other.getOmittedBehaviour());
+    }
+    for (Property property : inferred.getBeanCreator().getProperties()) {
+      Property other = loaded.getBeanCreator().getProperty(property.getName());
+      assertEquals(property.getNullBehaviour(), other.getNullBehaviour());
+      assertEquals(property.getOmittedBehaviour(), other.getOmittedBehaviour());
+    }
+  }
+
+}